@@ -14,6 +14,15 @@ public class FractalColourScheme {
     protected TreeMap<Double, Color> colours = new TreeMap<Double, Color>();
     protected Color gridline;
     
+    /**
+     * Default number of entries in the compiled palette
+     */
+    public static final int DEFAULT_PALETTE_SIZE = 16384;
+    
+    // Compiled palette, built on first use and discarded whenever the stops change
+    private volatile Palette palette;
+    private int paletteSize = DEFAULT_PALETTE_SIZE;
+    
     // <colourschemes>
     public static final FractalColourScheme DEFAULT;
     public static final FractalColourScheme BLUE_SKY;
@@ -113,15 +122,135 @@ public class FractalColourScheme {
         return new Color(r, g, b);
     }
     
+    /**
+     * Calculates the colour from the compiled palette, as a packed ARGB value.
+     * Progress is rounded to the nearest palette entry, so this may differ from
+     * {@link #calculateColour(double)} by one level in each component.
+     * 
+     * @param progress The gradient progress expressed as a ratio 0.0 <= x <= 1.0
+     */
+    public int calculateRGB(double progress) {
+        return calculateRGB(progress, 0);
+    }
+    
+    /**
+     * As {@link #calculateRGB(double)}, with the gradient rotated by the given shift
+     * 
+     * @param progress The gradient progress expressed as a ratio 0.0 <= x <= 1.0
+     * @param shift Amount to rotate the gradient by, wrapping around at 1.0
+     */
+    public int calculateRGB(double progress, double shift) {
+        Palette palette = getPalette();
+        int i = (int) ((rotate(progress, shift) - palette.start) * palette.scale + 0.5);
+        return palette.argb[Math.min(Math.max(i, 0), palette.argb.length - 1)];
+    }
+    
+    /**
+     * Maps a whole array of escape times to packed ARGB colours
+     * 
+     * @param escape Gradient progress of each point
+     * @param argb Colour of each point, in the same order as escape
+     */
+    public void mapAll(double[] escape, int[] argb) {
+        mapAll(escape, 0, argb, 0, escape.length);
+    }
+    
+    /**
+     * Maps a run of escape times to packed ARGB colours at the same indices
+     * in argb - for colouring part of an image from its escape times
+     * 
+     * @param escape Gradient progress of each point
+     * @param shift Amount to rotate the gradient by, wrapping around at 1.0
+     * @param argb Destination for the colours
+     * @param offset Index of the first point in both arrays
+     * @param length Number of points to map
+     */
+    public void mapAll(double[] escape, double shift, int[] argb, int offset, int length) {
+        Palette palette = getPalette();
+        int[] colours = palette.argb;
+        int last = colours.length - 1;
+        double start = palette.start;
+        double scale = palette.scale;
+        for (int x = offset; x < offset + length; x++) {
+            int i = (int) ((rotate(escape[x], shift) - start) * scale + 0.5);
+            argb[x] = colours[Math.min(Math.max(i, 0), last)];
+        }
+    }
+    
+    /**
+     * Rotate progress through the gradient, leaving points inside the set
+     * (progress of 1.0 or more) alone
+     */
+    private static double rotate(double progress, double shift) {
+        if (shift == 0 || progress >= 1.0) {
+            return progress;
+        }
+        double p = progress + shift;
+        return p - Math.floor(p);
+    }
+    
+    /**
+     * @return The compiled palette, building it if the stops have changed
+     */
+    private Palette getPalette() {
+        Palette palette = this.palette;
+        if (palette == null) {
+            palette = compilePalette();
+        }
+        return palette;
+    }
+    
+    private synchronized Palette compilePalette() {
+        if (palette != null) {
+            return palette;
+        }
+        if (colours.size() < 2) {
+            throw new IllegalStateException("There are not enough colours in this colour scheme!");
+        }
+        
+        // Sample the exact gradient at evenly spaced points between the end stops
+        int[] table = new int[paletteSize];
+        double start = colours.firstKey();
+        double step = (colours.lastKey() - start) / (paletteSize - 1);
+        for (int i = 0; i < table.length; i++) {
+            table[i] = calculateColour(start + i * step).getRGB();
+        }
+        
+        palette = new Palette(table, start, 1 / step);
+        return palette;
+    }
+    
+    /**
+     * @return Number of entries in the compiled palette
+     */
+    public int getPaletteSize() {
+        return paletteSize;
+    }
+    
+    /**
+     * Set the resolution of the compiled palette - larger palettes follow the
+     * gradient more closely, at the cost of memory
+     * 
+     * @param size Number of entries, at least 2
+     */
+    public synchronized void setPaletteSize(int size) {
+        if (size < 2) {
+            throw new IllegalArgumentException(size + " is not a valid palette size.");
+        }
+        paletteSize = size;
+        palette = null;
+    }
+    
     /**
      * Add a colour stop to the scheme's gradient generator
      * 
      * @param progress Gradient progress ratio satisfying 0.0 <= x <= 1.0
      * @param c Colour to add
      */
-    public void addColourStop(Double progress, Color c) {
+    public synchronized void addColourStop(Double progress, Color c) {
         if (progress >= 0.0 && progress <= 1.0) {
             colours.put(progress, c);
+            palette = null;
         } else {
             throw new IllegalArgumentException(progress + " is not a valid ratio.");
         }
@@ -169,8 +298,9 @@ public class FractalColourScheme {
      * Remove a colour stop with the given location, if exists
      * @param location
      */
-    public void removeColourStop(Double location) {
+    public synchronized void removeColourStop(Double location) {
         colours.remove(location);
+        palette = null;
     }
     
     /**
@@ -200,6 +330,18 @@ public class FractalColourScheme {
         this.gridline = c;
     }
     
+    /**
+     * Describe everything which decides the colours the scheme gives, the
+     * same way from one run to the next
+     */
+    public String getParameters() {
+        StringBuilder parameters = new StringBuilder(getClass().getName());
+        for (Entry<Double, Color> stop : colours.entrySet()) {
+            parameters.append(' ').append(stop.getKey()).append('=').append(Integer.toHexString(stop.getValue().getRGB()));
+        }
+        return parameters.append(" paletteSize=").append(paletteSize).toString();
+    }
+    
     /*
      * Generated hash code function (non-Javadoc)
      * 
@@ -240,4 +382,22 @@ public class FractalColourScheme {
             return false;
         return true;
     }
+    
+    /**
+     * ARGB colours evenly spaced between the first and last stops, with the
+     * mapping from progress to entry. Published as a whole, so that readers
+     * never mix one palette's colours with another's mapping.
+     */
+    private static class Palette {
+        
+        private final int[] argb;
+        private final double start;
+        private final double scale;
+        
+        public Palette(int[] argb, double start, double scale) {
+            this.argb = argb;
+            this.start = start;
+            this.scale = scale;
+        }
+    }
 }
@@ -15,8 +15,12 @@ import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.math.BigDecimal;
 
 import javax.swing.BorderFactory;
 import javax.swing.GroupLayout;
@@ -35,12 +39,17 @@ import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
 
 import com.cjwatts.fractalexplorer.main.algorithms.*;
+import com.cjwatts.fractalexplorer.main.io.DiskTileCache;
 import com.cjwatts.fractalexplorer.main.io.Favourite;
 import com.cjwatts.fractalexplorer.main.io.Favourites;
 import com.cjwatts.fractalexplorer.main.panels.BaseFractalPanel;
 import com.cjwatts.fractalexplorer.main.panels.FractalPanel;
 import com.cjwatts.fractalexplorer.main.panels.JuliaPanel;
+import com.cjwatts.fractalexplorer.main.panels.RenderCoalescer;
+import com.cjwatts.fractalexplorer.main.panels.RenderExecutor;
+import com.cjwatts.fractalexplorer.main.panels.TileCache;
 import com.cjwatts.fractalexplorer.main.util.AxisSpinner;
+import com.cjwatts.fractalexplorer.main.util.BigComplex;
 import com.cjwatts.fractalexplorer.main.util.Complex;
 import com.cjwatts.fractalexplorer.main.util.IterationSpinner;
 
@@ -59,6 +68,9 @@ public class FractalExplorer extends JFrame {
     
     private Complex lastSelected = new Complex(0, 0);
     
+    // Gathers changes from the controls into single renders
+    protected RenderCoalescer coalescer;
+    
     protected static Favourites favouriteList = new Favourites();
     
     public static void main(String[] args) {
@@ -76,6 +88,14 @@ public class FractalExplorer extends JFrame {
             ex.printStackTrace();
         }
         
+        // Keep rendered tiles between runs
+        try {
+            TileCache.getShared().setDisk(DiskTileCache.openDefault());
+        } catch (IOException ex) {
+            System.err.println("Unable to open tile cache!");
+            ex.printStackTrace();
+        }
+        
         SwingUtilities.invokeLater(new Runnable() {
             
             @Override
@@ -400,29 +420,45 @@ public class FractalExplorer extends JFrame {
         );
         content.setLayout(contentLayout);
         
-        // Change listener for graph controls
-        class FractalUpdater implements ChangeListener, ItemListener {
+        // Change listener for graph controls - changes are gathered by the
+        // coalescer, which applies them together in a single render
+        class FractalUpdater implements ChangeListener, ItemListener, Runnable {
+            
+            private boolean algorithmChanged = false;
             
             @Override
             public void stateChanged(ChangeEvent e) {
-                // Reset ALL graph attributes (except algorithm)
-                iterationCount = iterations.getInteger();
-                majorFractal.getAlgorithm().setIterations(iterationCount);
-                minorFractal.repaint();
-                majorFractal.setComplexBounds(realFrom.getDouble(), realTo.getDouble(), imaginaryFrom.getDouble(), imaginaryTo.getDouble());
+                coalescer.request();
             }
             
             @Override
             public void itemStateChanged(ItemEvent e) {
-                // Update algorithm
-                BaseFractalAlgorithm a = BaseFractalAlgorithm.getByName(algorithm.getSelectedItem().toString());
-                a.setEscapeRadius(escapeRadius);
-                a.setIterations(iterationCount);
-                majorFractal.setAlgorithm(a);
-                minorFractal.setAlgorithm(new JuliaAlgorithm(a, lastSelected));
+                algorithmChanged = true;
+                coalescer.request();
+            }
+            
+            @Override
+            public void run() {
+                iterationCount = iterations.getInteger();
+                if (algorithmChanged) {
+                    // Update algorithm
+                    algorithmChanged = false;
+                    BaseFractalAlgorithm a = BaseFractalAlgorithm.getByName(algorithm.getSelectedItem().toString());
+                    a.setEscapeRadius(escapeRadius);
+                    a.setIterations(iterationCount);
+                    majorFractal.setAlgorithm(a);
+                    minorFractal.setAlgorithm(new JuliaAlgorithm(a, lastSelected));
+                } else if (iterationCount != majorFractal.getAlgorithm().getIterations()) {
+                    // The Julia set shares the algorithm, so both panels need telling
+                    majorFractal.getAlgorithm().setIterations(iterationCount);
+                    majorFractal.algorithmChanged();
+                    minorFractal.algorithmChanged();
+                }
+                majorFractal.setComplexBounds(realFrom.getBigDecimal(), realTo.getBigDecimal(), imaginaryFrom.getBigDecimal(), imaginaryTo.getBigDecimal());
             }
         }
         FractalUpdater updater = new FractalUpdater();
+        coalescer = new RenderCoalescer(updater, majorFractal, minorFractal);
         
         algorithm.addItemListener(updater);
         iterations.addChangeListener(updater);
@@ -487,9 +523,9 @@ public class FractalExplorer extends JFrame {
                             selected.toString(),
                             majorFractal.getAlgorithm(),
                             lastSelected,
-                            new Complex[] {
-                                new Complex(realFrom.getDouble(), imaginaryFrom.getDouble()),
-                                new Complex(realTo.getDouble(), imaginaryTo.getDouble())
+                            new BigComplex[] {
+                                new BigComplex(realFrom.getBigDecimal(), imaginaryFrom.getBigDecimal()),
+                                new BigComplex(realTo.getBigDecimal(), imaginaryTo.getBigDecimal())
                             },
                             majorFractal.getColourScheme()));
                     ;
@@ -525,7 +561,7 @@ public class FractalExplorer extends JFrame {
                         majorFractal.setColourScheme(scheme);
                         minorFractal.setColourScheme(scheme);
                         
-                        Complex[] bounds = f.getBounds();
+                        BigComplex[] bounds = f.getBounds();
                         realFrom.setValue(bounds[0].real());
                         imaginaryFrom.setValue(bounds[0].imaginary());
                         realTo.setValue(bounds[1].real());
@@ -574,13 +610,17 @@ public class FractalExplorer extends JFrame {
              */
             @Override
             public void mousePressed(MouseEvent e) {
+                // Start a possible drag operation
+                dragStart = e.getPoint();
+                if (SwingUtilities.isRightMouseButton(e)) {
+                    // Right drags pan, so leave the Julia set alone
+                    return;
+                }
+                
                 // Spawn a new julia algorithm at the selected coordinates
                 lastSelected = fractal.getCartesian(e.getX(), e.getY());
                 minorFractal.setAlgorithm(new JuliaAlgorithm(majorFractal.getAlgorithm(), lastSelected));
                 selectedCoords.setText(lastSelected.round(3).toString());
-                
-                // Start a possible drag operation
-                dragStart = e.getPoint();
             }
             
             /*
@@ -596,6 +636,11 @@ public class FractalExplorer extends JFrame {
              */
             @Override
             public void mouseDragged(MouseEvent e) {
+                if (SwingUtilities.isRightMouseButton(e)) {
+                    pan(e.getPoint());
+                    return;
+                }
+                
                 // Make a new rectangle at the correct size
                 zoomArea = new Rectangle(dragStart);
                 zoomArea.add(e.getPoint());
@@ -603,6 +648,45 @@ public class FractalExplorer extends JFrame {
                 fractal.paintZoom(zoomArea);
             }
             
+            /**
+             * Move the view by a whole number of pixels, so that the part of
+             * the last render still on screen is reused
+             */
+            private void pan(Point p) {
+                BigDecimal re = fractal.getSpacingRe().multiply(BigDecimal.valueOf(dragStart.x - p.x));
+                BigDecimal im = fractal.getSpacingIm().multiply(BigDecimal.valueOf(dragStart.y - p.y));
+                dragStart = p;
+                
+                // Set the viewport via the AxisSpinners, which render once all four have changed
+                realFrom.setValue(realFrom.getBigDecimal().add(re));
+                realTo.setValue(realTo.getBigDecimal().add(re));
+                imaginaryFrom.setValue(imaginaryFrom.getBigDecimal().add(im));
+                imaginaryTo.setValue(imaginaryTo.getBigDecimal().add(im));
+            }
+            
+            /*
+             * Handle wheel zoom - halve or double the view about the point
+             * under the mouse for each notch. The last render's pixels then
+             * land on the new pixel grid, so a quarter of them are reused
+             * zooming in and all of them zooming out.
+             */
+            @Override
+            public void mouseWheelMoved(MouseWheelEvent e) {
+                int notches = e.getWheelRotation();
+                if (notches == 0) {
+                    return;
+                }
+                // Away from the user zooms in
+                BigDecimal factor = (notches < 0 ? new BigDecimal("0.5") : BigDecimal.valueOf(2)).pow(Math.abs(notches));
+                BigComplex point = fractal.getCartesianExact(e.getX(), e.getY());
+                
+                // Set the viewport via the AxisSpinners, which render once all four have changed
+                realFrom.setValue(point.real().add(realFrom.getBigDecimal().subtract(point.real()).multiply(factor)));
+                realTo.setValue(point.real().add(realTo.getBigDecimal().subtract(point.real()).multiply(factor)));
+                imaginaryFrom.setValue(point.imaginary().add(imaginaryFrom.getBigDecimal().subtract(point.imaginary()).multiply(factor)));
+                imaginaryTo.setValue(point.imaginary().add(imaginaryTo.getBigDecimal().subtract(point.imaginary()).multiply(factor)));
+            }
+            
             /*
              * Handle rectangle zoom
              */
@@ -613,11 +697,12 @@ public class FractalExplorer extends JFrame {
                     // Make sure zoom area isn't a ridiculously small size
                     Dimension size = zoomArea.getSize();
                     if (size.getWidth() * size.getHeight() > 50) {
-                        // Get rectangle vertices as complex numbers
+                        // Get rectangle vertices as complex numbers, at full
+                        // precision for deep zooms
                         // Min x and min y
-                        Complex point1 = fractal.getCartesian(zoomArea.x, zoomArea.y);
+                        BigComplex point1 = fractal.getCartesianExact(zoomArea.x, zoomArea.y);
                         // Max x and max y
-                        Complex point2 = fractal.getCartesian(zoomArea.x + zoomArea.width, zoomArea.y + zoomArea.height);
+                        BigComplex point2 = fractal.getCartesianExact(zoomArea.x + zoomArea.width, zoomArea.y + zoomArea.height);
                         
                         // Set the viewport via the AxisSpinners (to update both
                         // spinners and graph)
@@ -636,14 +721,37 @@ public class FractalExplorer extends JFrame {
         FractalActionListener majorListener = new FractalActionListener(majorFractal);
         majorFractal.addMouseListener(majorListener);
         majorFractal.addMouseMotionListener(majorListener);
+        majorFractal.addMouseWheelListener(majorListener);
         
         this.setContentPane(content);
         this.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        this.addWindowListener(new WindowAdapter() {
+            
+            @Override
+            public void windowClosing(WindowEvent e) {
+                // Stop the render threads shared by both panels
+                RenderExecutor.shutdownShared();
+                
+                // Write out the tiles kept between runs
+                DiskTileCache disk = TileCache.getShared().getDisk();
+                if (disk != null) {
+                    TileCache.getShared().setDisk(null);
+                    disk.close();
+                }
+            }
+        });
         this.setBounds(100, 100, 640, 480);
         this.setMinimumSize(new Dimension(439, 497));
         this.pack();
     }
     
+    /**
+     * @return The coalescer gathering changes from the controls, and its counts
+     */
+    public RenderCoalescer getRenderCoalescer() {
+        return coalescer;
+    }
+    
     /**
      * @return The current fractal panel in the major fractal wrapper
      */
@@ -743,4 +851,4 @@ public class FractalExplorer extends JFrame {
             }
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,104 @@
+package com.cjwatts.fractalexplorer.main.algorithms;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Arbitrary precision settings and counters for a single render
+ * 
+ * Shared by all render threads, so the counters are atomic.
+ */
+public class ArbitraryPrecision {
+    
+    // Bits kept beyond the resolution required, to absorb rounding
+    public static final int GUARD_BITS = 40;
+    
+    // Never use fewer fraction bits than a double-double has
+    public static final int MIN_BITS = 106;
+    
+    private static final double LOG2_10 = Math.log(10) / Math.log(2);
+    
+    private final int bits;
+    
+    private final long start = System.nanoTime();
+    private volatile long end;
+    
+    private final AtomicLong pixels = new AtomicLong();
+    private final AtomicLong iterations = new AtomicLong();
+    
+    /**
+     * @param bits Number of fraction bits for the fixed-point kernels
+     */
+    public ArbitraryPrecision(int bits) {
+        this.bits = bits;
+    }
+    
+    /**
+     * Size the precision to resolve the given pixel spacing
+     * 
+     * @param spacing Smallest distance between adjacent pixels
+     */
+    public static ArbitraryPrecision forSpacing(BigDecimal spacing) {
+        spacing = spacing.abs();
+        int bits = MIN_BITS;
+        if (spacing.signum() != 0) {
+            // log2(unscaled * 10^-scale)
+            double log2 = spacing.unscaledValue().bitLength() - spacing.scale() * LOG2_10;
+            bits = Math.max(MIN_BITS, (int) Math.ceil(-log2) + GUARD_BITS);
+        }
+        return new ArbitraryPrecision(bits);
+    }
+    
+    /**
+     * Record a finished pixel
+     * 
+     * @param iterations Iterations taken by the pixel
+     */
+    public void record(long iterations) {
+        this.pixels.incrementAndGet();
+        this.iterations.addAndGet(iterations);
+    }
+    
+    /**
+     * Stop the clock for iterations per second
+     */
+    public void finish() {
+        end = System.nanoTime();
+    }
+    
+    /**
+     * @return Number of fraction bits for the fixed-point kernels
+     */
+    public int getBits() {
+        return bits;
+    }
+    
+    /**
+     * @return Number of pixels calculated so far
+     */
+    public long getPixels() {
+        return pixels.get();
+    }
+    
+    /**
+     * @return Total iterations calculated so far
+     */
+    public long getIterations() {
+        return iterations.get();
+    }
+    
+    /**
+     * @return Iterations per second across all render threads, up until
+     *         finish was called or now if the render is still going
+     */
+    public double getIterationsPerSecond() {
+        long stop = end == 0 ? System.nanoTime() : end;
+        double seconds = (stop - start) / 1e9;
+        return seconds > 0 ? getIterations() / seconds : 0;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("%d bits, %d pixels, %.0f iterations/s", bits, getPixels(), getIterationsPerSecond());
+    }
+}
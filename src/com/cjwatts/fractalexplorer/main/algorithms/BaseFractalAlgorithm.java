@@ -4,7 +4,12 @@ import java.util.Set;
 
 import org.reflections.Reflections;
 
+import com.cjwatts.fractalexplorer.main.util.BigComplex;
+import com.cjwatts.fractalexplorer.main.util.BigFixedComplex;
 import com.cjwatts.fractalexplorer.main.util.Complex;
+import com.cjwatts.fractalexplorer.main.util.DoubleDouble;
+import com.cjwatts.fractalexplorer.main.util.DoubleDoubleComplex;
+import com.cjwatts.fractalexplorer.main.util.Fixed128Complex;
 
 public abstract class BaseFractalAlgorithm extends FractalAlgorithm {
     
@@ -12,6 +17,11 @@ public abstract class BaseFractalAlgorithm extends FractalAlgorithm {
     protected double escapeRadius = 2.0;
     protected double escapeSquared = 4.0;
     
+    /**
+     * Number of points iterated together by the interleaved row kernels
+     */
+    protected static final int LANES = 4;
+    
     private static final double LOG_2 = Math.log(2);
     
     public BaseFractalAlgorithm() {
@@ -55,18 +65,320 @@ public abstract class BaseFractalAlgorithm extends FractalAlgorithm {
         return result;
     }
     
-    public double escapeTime(Complex point) {
-        return escapeTime(point, point);
+    @Override
+    public double escapeTime(double re, double im) {
+        return escapeTime(re, im, (Periodicity) null);
+    }
+    
+    /**
+     * Calculates normalised escape time [0, 1) for a point seeded with itself
+     * 
+     * @param re Real part of the point
+     * @param im Imaginary part of the point
+     * @param periodicity Periodicity checking for this render, or null for none
+     */
+    public double escapeTime(double re, double im, Periodicity periodicity) {
+        if (isInterior(re, im)) {
+            // Exactly what the loop returns for a point that never diverges
+            return normalise(re * re + im * im, iterations);
+        }
+        return escapeTime(re, im, re, im, periodicity);
+    }
+    
+    @Override
+    public void escapeTimeRow(double[] re, double im, double[] out, Periodicity periodicity) {
+        escapeTimeRow(re, im, 0, 0, false, out, periodicity, null);
+    }
+    
+    @Override
+    public void escapeTimeRow(double[] re, double im, double[] out, Periodicity periodicity, double[] orbit) {
+        escapeTimeRow(re, im, 0, 0, false, out, periodicity, orbit);
+    }
+    
+    /**
+     * Calculates escape times for a row of points using the same seed throughout
+     * 
+     * @param re Real parts of the points in the row
+     * @param im Imaginary part shared by the row
+     * @param seedRe Real part of the seed
+     * @param seedIm Imaginary part of the seed
+     * @param out Escape time for each point, in the same order as re
+     * @param periodicity Periodicity checking for this render, or null for none
+     */
+    public void escapeTimeRow(double[] re, double im, double seedRe, double seedIm, double[] out, Periodicity periodicity) {
+        escapeTimeRow(re, im, seedRe, seedIm, true, out, periodicity, null);
+    }
+    
+    /**
+     * As the Julia form of escapeTimeRow, also keeping the last orbit point
+     * reached by each point
+     * 
+     * @param orbit Last orbit point of each point as (re, im) pairs, twice the length of re
+     */
+    public void escapeTimeRow(double[] re, double im, double seedRe, double seedIm, double[] out, Periodicity periodicity, double[] orbit) {
+        escapeTimeRow(re, im, seedRe, seedIm, true, out, periodicity, orbit);
+    }
+    
+    /**
+     * Row kernel behind both forms of escapeTimeRow.
+     * 
+     * Subclasses may override this to iterate several points at once, but
+     * must return exactly what escapeTime would for each point.
+     * 
+     * @param julia True to use the given seed for every point, false to seed each point with itself
+     * @param orbit Where to keep the last orbit point of each point, or null to not keep them
+     */
+    protected void escapeTimeRow(double[] re, double im, double seedRe, double seedIm, boolean julia, double[] out, Periodicity periodicity, double[] orbit) {
+        escapeTimeScalar(re, im, seedRe, seedIm, julia, out, periodicity, orbit, 0);
+    }
+    
+    /**
+     * Scalar fallback for a row kernel - evaluates each point from the given index onwards
+     */
+    protected final void escapeTimeScalar(double[] re, double im, double seedRe, double seedIm, boolean julia, double[] out, Periodicity periodicity, double[] orbit, int from) {
+        for (int x = from; x < re.length; x++) {
+            if (orbit != null) {
+                // Start the orbit at the point, as the kernels do
+                orbit[2 * x] = re[x];
+                orbit[2 * x + 1] = im;
+                if (julia) {
+                    out[x] = escapeTime(orbit, 2 * x, 0, seedRe, seedIm, periodicity);
+                } else if (isInterior(re[x], im)) {
+                    out[x] = normalise(re[x] * re[x] + im * im, iterations);
+                } else {
+                    out[x] = escapeTime(orbit, 2 * x, 0, re[x], im, periodicity);
+                }
+            } else if (julia) {
+                out[x] = escapeTime(re[x], im, seedRe, seedIm, periodicity);
+            } else {
+                out[x] = escapeTime(re[x], im, periodicity);
+            }
+        }
+    }
+    
+    @Override
+    public void escapeTimeRow(float[] re, float im, double[] out, Periodicity periodicity) {
+        escapeTimeRow(re, im, 0, 0, false, out, periodicity);
+    }
+    
+    /**
+     * Single precision form of the Julia row kernel
+     * 
+     * @param re Real parts of the points in the row
+     * @param im Imaginary part shared by the row
+     * @param seedRe Real part of the seed
+     * @param seedIm Imaginary part of the seed
+     * @param out Escape time for each point, in the same order as re
+     * @param periodicity Periodicity checking for this render, or null for none
+     */
+    public void escapeTimeRow(float[] re, float im, float seedRe, float seedIm, double[] out, Periodicity periodicity) {
+        escapeTimeRow(re, im, seedRe, seedIm, true, out, periodicity);
+    }
+    
+    /**
+     * Row kernel behind both forms of the single precision escapeTimeRow
+     * 
+     * @param julia True to use the given seed for every point, false to seed each point with itself
+     */
+    protected void escapeTimeRow(float[] re, float im, float seedRe, float seedIm, boolean julia, double[] out, Periodicity periodicity) {
+        for (int x = 0; x < re.length; x++) {
+            if (julia) {
+                out[x] = escapeTimeFloat(re[x], im, seedRe, seedIm, periodicity);
+            } else if (isInterior(re[x], im)) {
+                out[x] = normalise(re[x] * re[x] + im * im, iterations);
+            } else {
+                out[x] = escapeTimeFloat(re[x], im, re[x], im, periodicity);
+            }
+        }
+    }
+    
+    @Override
+    public double continueOrbit(double re, double im, double[] orbit, int index, int from, Periodicity periodicity) {
+        if (isInterior(re, im)) {
+            return normalise(re * re + im * im, iterations);
+        }
+        return escapeTime(orbit, index, from, re, im, periodicity);
+    }
+    
+    /**
+     * Julia form of continueOrbit
+     * 
+     * @param orbit Orbit points as (re, im) pairs - the pair at index is
+     *        where the orbit was left, and is replaced by where it is left now
+     * @param index Index in orbit of the real part
+     * @param from Number of iterations the orbit had been through
+     * @param seedRe Real part of the seed
+     * @param seedIm Imaginary part of the seed
+     * @param periodicity Periodicity checking for this render, or null for none
+     */
+    public double continueOrbit(double[] orbit, int index, int from, double seedRe, double seedIm, Periodicity periodicity) {
+        return escapeTime(orbit, index, from, seedRe, seedIm, periodicity);
+    }
+    
+    /**
+     * Double precision kernel which carries on an orbit from a point it
+     * reached after a number of iterations, rather than from the start. As
+     * with the other kernels, implementations must not allocate inside the loop.
+     * 
+     * @param orbit Orbit points as (re, im) pairs - the pair at index is
+     *        where the orbit was left, and is replaced by where it is left now
+     * @param index Index in orbit of the real part
+     * @param from Number of iterations the orbit had been through
+     * @param seedRe Real part of the seed
+     * @param seedIm Imaginary part of the seed
+     * @param periodicity Periodicity checking for this render, or null for none
+     * @return 0 for instant divergence, 1 for never diverges
+     */
+    protected abstract double escapeTime(double[] orbit, int index, int from, double seedRe, double seedIm, Periodicity periodicity);
+    
+    @Override
+    public boolean canContinueOrbits() {
+        return true;
+    }
+    
+    /**
+     * Single precision kernel behind the float row kernels. As with the
+     * double kernel, implementations must not allocate inside the loop.
+     * 
+     * @param re Real part of the starting point
+     * @param im Imaginary part of the starting point
+     * @param seedRe Real part of the seed
+     * @param seedIm Imaginary part of the seed
+     * @param periodicity Periodicity checking for this render, or null for none
+     * @return 0 for instant divergence, 1 for never diverges
+     */
+    protected abstract double escapeTimeFloat(float re, float im, float seedRe, float seedIm, Periodicity periodicity);
+    
+    /**
+     * Checks whether a point is known to lie inside the set without iterating.
+     * Only consulted when a point is seeded with itself, never for Julia sets.
+     * 
+     * @return True only if the iteration loop would never diverge for this point
+     */
+    protected boolean isInterior(double re, double im) {
+        return false;
     }
     
     /**
      * Calculates normalised escape time [0, 1) for a given point and constant (seed)
+     * Adapter onto the primitive escape time kernel
      * 
      * @param point
      * @param seed
      * @return 0 for instant divergence, 1 for never diverges
      */
-    protected abstract double escapeTime(Complex point, Complex seed);
+    public double escapeTime(Complex point, Complex seed) {
+        return escapeTime(point.real(), point.imaginary(), seed.real(), seed.imaginary());
+    }
+    
+    /**
+     * Calculates normalised escape time [0, 1) for a given point and constant (seed)
+     * 
+     * @param re Real part of the starting point
+     * @param im Imaginary part of the starting point
+     * @param seedRe Real part of the seed
+     * @param seedIm Imaginary part of the seed
+     * @return 0 for instant divergence, 1 for never diverges
+     */
+    public double escapeTime(double re, double im, double seedRe, double seedIm) {
+        return escapeTime(re, im, seedRe, seedIm, null);
+    }
+    
+    /**
+     * Calculates normalised escape time [0, 1) for a given point and constant (seed)
+     * 
+     * Implementations must not allocate inside the iteration loop, as this is
+     * called for every pixel of every render. If a periodicity check is given,
+     * the loop should bail out as non-divergent once the orbit repeats within
+     * its tolerance, and record the shortcut.
+     * 
+     * @param re Real part of the starting point
+     * @param im Imaginary part of the starting point
+     * @param seedRe Real part of the seed
+     * @param seedIm Imaginary part of the seed
+     * @param periodicity Periodicity checking for this render, or null for none
+     * @return 0 for instant divergence, 1 for never diverges
+     */
+    public abstract double escapeTime(double re, double im, double seedRe, double seedIm, Periodicity periodicity);
+    
+    @Override
+    public double escapeTime(DoubleDoubleComplex point, Periodicity periodicity) {
+        // No interior check here - at double-double depths the view can sit
+        // closer to the cardioid than the check can resolve
+        return escapeTime(point, point, periodicity);
+    }
+    
+    /**
+     * Calculates normalised escape time [0, 1) for a given point and constant
+     * (seed) in double-double precision
+     * 
+     * As with the double kernel, implementations must not allocate inside the
+     * iteration loop - the DoubleDoubleComplex operations work in place.
+     * 
+     * @param point The starting point, which is not modified
+     * @param seed The seed, which is not modified
+     * @param periodicity Periodicity checking for this render, or null for none
+     * @return 0 for instant divergence, 1 for never diverges
+     */
+    public abstract double escapeTime(DoubleDoubleComplex point, DoubleDoubleComplex seed, Periodicity periodicity);
+    
+    @Override
+    public double escapeTime(Fixed128Complex point, Periodicity periodicity) {
+        return escapeTime(point, point, periodicity);
+    }
+    
+    /**
+     * Calculates normalised escape time [0, 1) for a given point and constant
+     * (seed) in 128-bit fixed-point
+     * 
+     * Fixed-point can't hold orbits outside the largest escape radius it
+     * supports, so the double-double kernel is used beyond that.
+     * 
+     * @param point The starting point, which is not modified
+     * @param seed The seed, which is not modified
+     * @param periodicity Periodicity checking for this render, or null for none
+     * @return 0 for instant divergence, 1 for never diverges
+     */
+    public double escapeTime(Fixed128Complex point, Fixed128Complex seed, Periodicity periodicity) {
+        if (escapeSquared > Fixed128Complex.MAX_ESCAPE_SQUARED) {
+            BigComplex p = point.toBigComplex();
+            BigComplex s = seed.toBigComplex();
+            return escapeTime(
+                    new DoubleDoubleComplex(DoubleDouble.valueOf(p.real()), DoubleDouble.valueOf(p.imaginary())),
+                    new DoubleDoubleComplex(DoubleDouble.valueOf(s.real()), DoubleDouble.valueOf(s.imaginary())),
+                    periodicity);
+        }
+        return escapeTimeFixed(point, seed, periodicity);
+    }
+    
+    /**
+     * 128-bit fixed-point kernel behind escapeTime, only called with escape
+     * radii the fixed-point format can hold.
+     * 
+     * As with the double kernel, implementations must not allocate inside the
+     * iteration loop - the Fixed128Complex operations work in place.
+     */
+    protected abstract double escapeTimeFixed(Fixed128Complex point, Fixed128Complex seed, Periodicity periodicity);
+    
+    @Override
+    public double escapeTime(BigFixedComplex point, ArbitraryPrecision context) {
+        return escapeTime(point, point, context);
+    }
+    
+    /**
+     * Calculates normalised escape time [0, 1) for a given point and constant
+     * (seed) in arbitrary precision
+     * 
+     * There are no shortcuts here - every point is iterated in full so that
+     * the result can be trusted. Implementations must record the iterations
+     * taken with the context.
+     * 
+     * @param point The starting point
+     * @param seed The seed, at the same precision as the point
+     * @param context Precision and counters for this render
+     * @return 0 for instant divergence, 1 for never diverges
+     */
+    public abstract double escapeTime(BigFixedComplex point, BigFixedComplex seed, ArbitraryPrecision context);
     
     /**
      * Helper method for finding the Normalisation Iteration Count.
@@ -78,21 +390,43 @@ public abstract class BaseFractalAlgorithm extends FractalAlgorithm {
      * @see <a href="http://linas.org/art-gallery/escape/escape.html">http://linas.org/art-gallery/escape/escape.html</a>
      */
     protected double normalise(Complex c, int d) {
+        return normalise(c.modulusSquared(), d);
+    }
+    
+    /**
+     * Helper method for finding the Normalisation Iteration Count.
+     * 
+     * @param modSquared Squared modulus of the diverging complex number
+     * @param d The divergence iteration count
+     */
+    protected double normalise(double modSquared, int d) {
         if (d == iterations) {
             return iterations;
         } else if (d == 0) {
             return 0;
         } else {
-            double modSquared = c.modulusSquared();
             return (d - (Math.log(Math.log(modSquared))) / LOG_2) / (iterations);
         }
     }
     
+    /**
+     * Helper method for counting the iterations a kernel calculated
+     * 
+     * @param periodicity Counters for this render, or null for none
+     * @param iterations Number of iterations
+     */
+    protected static void count(Periodicity periodicity, long iterations) {
+        if (periodicity != null) {
+            periodicity.count(iterations);
+        }
+    }
+    
     /**
      * @return Name of the algorithm
      */
     public abstract String getName();
     
+    @Override
     public int getIterations() {
         return this.iterations;
     }
@@ -110,6 +444,16 @@ public abstract class BaseFractalAlgorithm extends FractalAlgorithm {
         this.escapeSquared = Math.pow(escapeRadius, 2);
     }
     
+    @Override
+    public String getParameters() {
+        return getClass().getName() + " iterations=" + iterations + " escapeRadius=" + escapeRadius;
+    }
+    
+    @Override
+    public String getOrbitParameters() {
+        return getClass().getName() + " escapeRadius=" + escapeRadius;
+    }
+    
     /*
      * Generated hash code function (non-Javadoc)
      * 
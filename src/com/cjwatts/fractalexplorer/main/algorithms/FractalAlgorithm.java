@@ -1,6 +1,9 @@
 package com.cjwatts.fractalexplorer.main.algorithms;
 
+import com.cjwatts.fractalexplorer.main.util.BigFixedComplex;
 import com.cjwatts.fractalexplorer.main.util.Complex;
+import com.cjwatts.fractalexplorer.main.util.DoubleDoubleComplex;
+import com.cjwatts.fractalexplorer.main.util.Fixed128Complex;
 
 public abstract class FractalAlgorithm {
     
@@ -13,5 +16,179 @@ public abstract class FractalAlgorithm {
      * @param seed
      * @return 0 for instant divergence, 1 for never diverges
      */
-    public abstract double escapeTime(Complex seed);
+    public double escapeTime(Complex seed) {
+        return escapeTime(seed.real(), seed.imaginary());
+    }
+    
+    /**
+     * Primitive form of {@link #escapeTime(Complex)}, for use on the render path
+     * where allocating a Complex per pixel is too expensive.
+     * 
+     * @param re Real part of the point
+     * @param im Imaginary part of the point
+     * @return 0 for instant divergence, 1 for never diverges
+     */
+    public abstract double escapeTime(double re, double im);
+    
+    /**
+     * Calculates escape times for a row of points which share an imaginary part.
+     * 
+     * The default implementation evaluates each point in turn; algorithms may
+     * override this with a batched kernel, provided the results are identical.
+     * 
+     * @param re Real parts of the points in the row
+     * @param im Imaginary part shared by the row
+     * @param out Escape time for each point, in the same order as re
+     */
+    public void escapeTimeRow(double[] re, double im, double[] out) {
+        escapeTimeRow(re, im, out, null);
+    }
+    
+    /**
+     * Calculates escape times for a row of points, with periodicity checking.
+     * Algorithms which don't support periodicity checking may ignore it.
+     * 
+     * @param re Real parts of the points in the row
+     * @param im Imaginary part shared by the row
+     * @param out Escape time for each point, in the same order as re
+     * @param periodicity Periodicity checking for this render, or null for none
+     */
+    public void escapeTimeRow(double[] re, double im, double[] out, Periodicity periodicity) {
+        for (int x = 0; x < re.length; x++) {
+            out[x] = escapeTime(re[x], im);
+        }
+    }
+    
+    /**
+     * As {@link #escapeTimeRow(double[], double, double[], Periodicity)}, also
+     * keeping the last orbit point reached by each point, so that the orbits
+     * can be carried on with {@link #continueOrbit} if the iteration limit is
+     * raised. Only called for algorithms which can continue orbits.
+     * 
+     * @param re Real parts of the points in the row
+     * @param im Imaginary part shared by the row
+     * @param out Escape time for each point, in the same order as re
+     * @param periodicity Periodicity checking for this render, or null for none
+     * @param orbit Last orbit point of each point as (re, im) pairs, twice the length of re
+     */
+    public void escapeTimeRow(double[] re, double im, double[] out, Periodicity periodicity, double[] orbit) {
+        escapeTimeRow(re, im, out, periodicity);
+    }
+    
+    /**
+     * Carries on the orbit of a point which reached the iteration limit of an
+     * earlier render, up to the current limit. Only called for algorithms
+     * which can continue orbits; the default implementation starts again.
+     * 
+     * @param re Real part of the point
+     * @param im Imaginary part of the point
+     * @param orbit Orbit points as (re, im) pairs - the pair at index is
+     *        where the orbit was left, and is replaced by where it is left now
+     * @param index Index in orbit of the real part
+     * @param from Number of iterations the orbit had been through
+     * @param periodicity Periodicity checking for this render, or null for none
+     * @return 0 for instant divergence, 1 for never diverges
+     */
+    public double continueOrbit(double re, double im, double[] orbit, int index, int from, Periodicity periodicity) {
+        return escapeTime(re, im);
+    }
+    
+    /**
+     * @return True if this algorithm can keep orbits with escapeTimeRow and
+     *         carry them on with continueOrbit
+     */
+    public boolean canContinueOrbits() {
+        return false;
+    }
+    
+    /**
+     * @return Iteration limit, or 0 if this algorithm doesn't have one
+     */
+    public int getIterations() {
+        return 0;
+    }
+    
+    /**
+     * Describe everything which decides the escape time of a point, the same
+     * way from one run to the next - unlike hashCode, which may not be. The
+     * default implementation is the class name.
+     */
+    public String getParameters() {
+        return getClass().getName();
+    }
+    
+    /**
+     * Describe everything which decides the orbit of a point apart from the
+     * iteration limit, so that a render can tell when only the limit has
+     * changed. The default implementation is the same as getParameters.
+     */
+    public String getOrbitParameters() {
+        return getParameters();
+    }
+    
+    /**
+     * Single precision form of {@link #escapeTimeRow(double[], double, double[], Periodicity)},
+     * for shallow views where double precision is wasted.
+     * 
+     * The default implementation widens each point to double precision;
+     * algorithms should override this with a float kernel.
+     * 
+     * @param re Real parts of the points in the row
+     * @param im Imaginary part shared by the row
+     * @param out Escape time for each point, in the same order as re
+     * @param periodicity Periodicity checking for this render, or null for none
+     */
+    public void escapeTimeRow(float[] re, float im, double[] out, Periodicity periodicity) {
+        for (int x = 0; x < re.length; x++) {
+            out[x] = escapeTime(re[x], im);
+        }
+    }
+    
+    /**
+     * Double-double form of {@link #escapeTime(Complex)}, for views zoomed
+     * beyond double precision.
+     * 
+     * The default implementation rounds the point to double precision;
+     * algorithms should override this with a double-double kernel.
+     * 
+     * @param point The point, which is not modified
+     * @param periodicity Periodicity checking for this render, or null for none
+     * @return 0 for instant divergence, 1 for never diverges
+     */
+    public double escapeTime(DoubleDoubleComplex point, Periodicity periodicity) {
+        Complex c = point.toComplex();
+        return escapeTime(c.real(), c.imaginary());
+    }
+    
+    /**
+     * 128-bit fixed-point form of {@link #escapeTime(Complex)}, for views
+     * zoomed beyond double precision.
+     * 
+     * The default implementation rounds the point to double precision;
+     * algorithms should override this with a fixed-point kernel.
+     * 
+     * @param point The point, which is not modified
+     * @param periodicity Periodicity checking for this render, or null for none
+     * @return 0 for instant divergence, 1 for never diverges
+     */
+    public double escapeTime(Fixed128Complex point, Periodicity periodicity) {
+        Complex c = point.toComplex();
+        return escapeTime(c.real(), c.imaginary());
+    }
+    
+    /**
+     * Arbitrary precision form of {@link #escapeTime(Complex)}, as a
+     * correctness baseline for the deepest zooms.
+     * 
+     * The default implementation rounds the point to double precision;
+     * algorithms should override this with an arbitrary precision kernel.
+     * 
+     * @param point The point, at the precision given by the context
+     * @param context Precision and counters for this render
+     * @return 0 for instant divergence, 1 for never diverges
+     */
+    public double escapeTime(BigFixedComplex point, ArbitraryPrecision context) {
+        Complex c = point.toComplex();
+        return escapeTime(c.real(), c.imaginary());
+    }
 }
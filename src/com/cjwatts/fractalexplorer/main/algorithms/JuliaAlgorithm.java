@@ -1,12 +1,19 @@
 package com.cjwatts.fractalexplorer.main.algorithms;
 
+import com.cjwatts.fractalexplorer.main.util.BigFixedComplex;
 import com.cjwatts.fractalexplorer.main.util.Complex;
+import com.cjwatts.fractalexplorer.main.util.DoubleDoubleComplex;
+import com.cjwatts.fractalexplorer.main.util.Fixed128Complex;
 
 public class JuliaAlgorithm extends FractalAlgorithm {
     
     protected BaseFractalAlgorithm base;
     protected Complex seed;
     
+    // Seed as used by the double-double and fixed-point kernels
+    private DoubleDoubleComplex seedDD;
+    private Fixed128Complex seedFixed;
+    
     /**
      * Create a new Julia computation based on another fractal algorithm
      * @param base
@@ -14,12 +21,68 @@ public class JuliaAlgorithm extends FractalAlgorithm {
     public JuliaAlgorithm(BaseFractalAlgorithm base, Complex seed) {
         super();
         this.base = base;
-        this.seed = seed;
+        this.setSeed(seed);
+    }
+    
+    @Override
+    public double escapeTime(double re, double im) {
+        return base.escapeTime(re, im, seed.real(), seed.imaginary());
+    }
+    
+    @Override
+    public void escapeTimeRow(double[] re, double im, double[] out, Periodicity periodicity) {
+        base.escapeTimeRow(re, im, seed.real(), seed.imaginary(), out, periodicity);
+    }
+    
+    @Override
+    public void escapeTimeRow(double[] re, double im, double[] out, Periodicity periodicity, double[] orbit) {
+        base.escapeTimeRow(re, im, seed.real(), seed.imaginary(), out, periodicity, orbit);
+    }
+    
+    @Override
+    public double continueOrbit(double re, double im, double[] orbit, int index, int from, Periodicity periodicity) {
+        return base.continueOrbit(orbit, index, from, seed.real(), seed.imaginary(), periodicity);
+    }
+    
+    @Override
+    public boolean canContinueOrbits() {
+        return base.canContinueOrbits();
+    }
+    
+    @Override
+    public int getIterations() {
+        return base.getIterations();
+    }
+    
+    @Override
+    public String getParameters() {
+        return getClass().getName() + " seed=" + seed.real() + "," + seed.imaginary() + " base=" + base.getParameters();
+    }
+    
+    @Override
+    public String getOrbitParameters() {
+        return getClass().getName() + " seed=" + seed.real() + "," + seed.imaginary() + " base=" + base.getOrbitParameters();
+    }
+    
+    @Override
+    public void escapeTimeRow(float[] re, float im, double[] out, Periodicity periodicity) {
+        base.escapeTimeRow(re, im, (float) seed.real(), (float) seed.imaginary(), out, periodicity);
+    }
+    
+    @Override
+    public double escapeTime(DoubleDoubleComplex point, Periodicity periodicity) {
+        return base.escapeTime(point, seedDD, periodicity);
+    }
+    
+    @Override
+    public double escapeTime(Fixed128Complex point, Periodicity periodicity) {
+        return base.escapeTime(point, seedFixed, periodicity);
     }
     
     @Override
-    public double escapeTime(Complex point) {
-        return base.escapeTime(point, seed);
+    public double escapeTime(BigFixedComplex point, ArbitraryPrecision context) {
+        BigFixedComplex seedFixed = BigFixedComplex.valueOf(seed.real(), seed.imaginary(), point.getScale());
+        return base.escapeTime(point, seedFixed, context);
     }
     
     /**
@@ -34,6 +97,8 @@ public class JuliaAlgorithm extends FractalAlgorithm {
      */
     public void setSeed(Complex seed) {
         this.seed = seed;
+        this.seedDD = (seed == null) ? null : new DoubleDoubleComplex(seed.real(), seed.imaginary());
+        this.seedFixed = (seed == null) ? null : new Fixed128Complex(seed.real(), seed.imaginary());
     }
     
     /**
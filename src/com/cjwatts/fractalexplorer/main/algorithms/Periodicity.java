@@ -0,0 +1,92 @@
+package com.cjwatts.fractalexplorer.main.algorithms;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Orbit periodicity checking settings and counters for a single render,
+ * along with the iterations the kernels have calculated
+ * 
+ * Shared by all render threads, so the counters are atomic.
+ */
+public class Periodicity {
+    
+    private final double tolerance;
+    
+    private final AtomicLong pixels = new AtomicLong();
+    private final AtomicLong iterationsSaved = new AtomicLong();
+    private final AtomicLong iterations = new AtomicLong();
+    
+    /**
+     * Count iterations without checking for periodic orbits
+     */
+    public Periodicity() {
+        this(-1);
+    }
+    
+    /**
+     * @param tolerance Distance within which two orbit points are considered equal
+     */
+    public Periodicity(double tolerance) {
+        this.tolerance = tolerance;
+    }
+    
+    /**
+     * Record pixels which bailed out early due to a periodic orbit
+     * 
+     * @param pixels Number of pixels
+     * @param iterationsSaved Total iterations skipped for those pixels
+     */
+    public void record(long pixels, long iterationsSaved) {
+        this.pixels.addAndGet(pixels);
+        this.iterationsSaved.addAndGet(iterationsSaved);
+    }
+    
+    /**
+     * Record iterations calculated, whether or not the orbits were periodic
+     * 
+     * @param iterations Number of iterations
+     */
+    public void count(long iterations) {
+        this.iterations.addAndGet(iterations);
+    }
+    
+    /**
+     * @return True if orbits are checked for periodicity, rather than only counted
+     */
+    public boolean isChecking() {
+        return tolerance >= 0;
+    }
+    
+    /**
+     * @return Distance within which two orbit points are considered equal
+     */
+    public double getTolerance() {
+        return tolerance;
+    }
+    
+    /**
+     * @return Number of pixels which took the periodicity shortcut
+     */
+    public long getPixels() {
+        return pixels.get();
+    }
+    
+    /**
+     * @return Number of iterations skipped by the periodicity shortcut
+     */
+    public long getIterationsSaved() {
+        return iterationsSaved.get();
+    }
+    
+    /**
+     * @return Number of iterations calculated so far
+     */
+    public long getIterations() {
+        return iterations.get();
+    }
+    
+    @Override
+    public String toString() {
+        return getPixels() + " periodic pixels, " + getIterationsSaved() + " iterations saved";
+    }
+}
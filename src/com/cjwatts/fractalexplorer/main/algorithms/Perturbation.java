@@ -0,0 +1,186 @@
+package com.cjwatts.fractalexplorer.main.algorithms;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.cjwatts.fractalexplorer.main.util.BigComplex;
+
+/**
+ * Perturbation theory deep zoom for the Mandelbrot set
+ * 
+ * A single reference orbit Z is iterated at arbitrary precision, then every
+ * pixel is iterated in double precision as a small delta d from it:
+ * z(n) = Z(n) + d(n), where d(n+1) = 2Z(n)d(n) + d(n)^2 + dc
+ * 
+ * The deltas stay representable long after the pixel coordinates themselves
+ * have run out of double precision. Pixels whose delta swamps the reference
+ * lose precision instead, so they are reported as glitches to be recalculated
+ * against a new reference closer to them.
+ */
+public class Perturbation {
+    
+    // Pauldelbrot's criterion - glitched when |Z(n) + d(n)|^2 < GLITCH_TOLERANCE * |Z(n)|^2
+    public static final double GLITCH_TOLERANCE = 1e-6;
+    
+    private final MandelbrotAlgorithm algorithm;
+    private final BigComplex centre;
+    private final BigDecimal spacingRe, spacingIm;
+    private final int width, height;
+    private final MathContext mc;
+    
+    // Pixel spacing as used for the deltas
+    private final double deltaRe, deltaIm;
+    
+    // Reference orbit, rounded to double precision
+    private int referenceX, referenceY;
+    private double[] orbitRe, orbitIm;
+    private int orbitLength;
+    
+    // Iterations calculated for pixels, from every render thread
+    private final AtomicLong calculated = new AtomicLong();
+    
+    /**
+     * Prepare a perturbation render of the given view, with the reference
+     * orbit at the centre
+     * 
+     * @param algorithm Mandelbrot algorithm providing iterations and escape radius
+     * @param centre Complex coordinate of pixel (width / 2, height / 2)
+     * @param spacingRe Real distance between adjacent pixels
+     * @param spacingIm Imaginary distance between adjacent pixels
+     * @param width Width of the view in pixels
+     * @param height Height of the view in pixels
+     */
+    public Perturbation(MandelbrotAlgorithm algorithm, BigComplex centre, BigDecimal spacingRe, BigDecimal spacingIm, int width, int height) {
+        this.algorithm = algorithm;
+        this.centre = centre;
+        this.spacingRe = spacingRe;
+        this.spacingIm = spacingIm;
+        this.width = width;
+        this.height = height;
+        this.mc = BigComplex.contextFor(spacingRe.min(spacingIm));
+        this.deltaRe = spacingRe.doubleValue();
+        this.deltaIm = spacingIm.doubleValue();
+        
+        setReference(width / 2, height / 2);
+    }
+    
+    /**
+     * Iterate a new reference orbit at the given pixel
+     * Must not be called while pixels are being calculated.
+     * 
+     * @param x X coordinate relative to top left
+     * @param y Y coordinate relative to top left
+     */
+    public void setReference(int x, int y) {
+        this.referenceX = x;
+        this.referenceY = y;
+        
+        BigComplex offset = new BigComplex(
+                spacingRe.multiply(BigDecimal.valueOf(x - width / 2)),
+                spacingIm.multiply(BigDecimal.valueOf(y - height / 2)));
+        BigComplex c = centre.add(offset, mc);
+        
+        int iterations = algorithm.getIterations();
+        orbitRe = new double[iterations + 1];
+        orbitIm = new double[iterations + 1];
+        
+        // Same loop as the Mandelbrot kernel, keeping every point on the way
+        BigComplex z = c;
+        int n = 0;
+        while (true) {
+            orbitRe[n] = z.real().doubleValue();
+            orbitIm[n] = z.imaginary().doubleValue();
+            double modSquared = orbitRe[n] * orbitRe[n] + orbitIm[n] * orbitIm[n];
+            if (modSquared >= algorithm.escapeSquared || n == iterations) {
+                break;
+            }
+            z = z.square(mc).add(c, mc);
+            n++;
+        }
+        orbitLength = n + 1;
+    }
+    
+    /**
+     * Calculates normalised escape time for the given pixel relative to the
+     * current reference orbit
+     * 
+     * @param x X coordinate relative to top left
+     * @param y Y coordinate relative to top left
+     * @return Escape time as the Mandelbrot kernel would give it, or NaN if glitched
+     */
+    public double escapeTime(int x, int y) {
+        int iterations = algorithm.getIterations();
+        double escapeSquared = algorithm.escapeSquared;
+        
+        double dcRe = (x - referenceX) * deltaRe;
+        double dcIm = (y - referenceY) * deltaIm;
+        
+        // The kernel starts from z = c, so the first delta is dc itself
+        double dRe = dcRe;
+        double dIm = dcIm;
+        double zRe = orbitRe[0] + dRe;
+        double zIm = orbitIm[0] + dIm;
+        double modSquared = zRe * zRe + zIm * zIm;
+        
+        int n = 0;
+        while (modSquared < escapeSquared && n < iterations) {
+            if (n + 1 >= orbitLength) {
+                // The reference escaped before this pixel did
+                calculated.addAndGet(n);
+                return Double.NaN;
+            }
+            
+            // d(n+1) = 2Z(n)d(n) + d(n)^2 + dc
+            double refRe = orbitRe[n];
+            double refIm = orbitIm[n];
+            double newRe = 2 * (refRe * dRe - refIm * dIm) + (dRe * dRe - dIm * dIm) + dcRe;
+            double newIm = 2 * (refRe * dIm + refIm * dRe) + 2 * (dRe * dIm) + dcIm;
+            dRe = newRe;
+            dIm = newIm;
+            n++;
+            
+            refRe = orbitRe[n];
+            refIm = orbitIm[n];
+            zRe = refRe + dRe;
+            zIm = refIm + dIm;
+            modSquared = zRe * zRe + zIm * zIm;
+            
+            if (modSquared < GLITCH_TOLERANCE * (refRe * refRe + refIm * refIm)) {
+                calculated.addAndGet(n);
+                return Double.NaN;
+            }
+        }
+        
+        calculated.addAndGet(n);
+        return algorithm.normalise(modSquared, n);
+    }
+    
+    /**
+     * @return True if the escape time returned for a pixel is a glitch
+     */
+    public static boolean isGlitch(double escapeTime) {
+        return Double.isNaN(escapeTime);
+    }
+    
+    /**
+     * @return Number of points in the current reference orbit
+     */
+    public int getOrbitLength() {
+        return orbitLength;
+    }
+    
+    /**
+     * @return Iterations calculated for pixels so far, glitched or not
+     */
+    public long getIterations() {
+        return calculated.get();
+    }
+    
+    /**
+     * @return Precision used for the reference orbit
+     */
+    public MathContext getMathContext() {
+        return mc;
+    }
+}
@@ -1,6 +1,8 @@
 package com.cjwatts.fractalexplorer.main.algorithms;
 
-import com.cjwatts.fractalexplorer.main.util.Complex;
+import com.cjwatts.fractalexplorer.main.util.BigFixedComplex;
+import com.cjwatts.fractalexplorer.main.util.DoubleDoubleComplex;
+import com.cjwatts.fractalexplorer.main.util.Fixed128Complex;
 
 public class TricornAlgorithm extends BaseFractalAlgorithm {
     
@@ -15,16 +17,345 @@ public class TricornAlgorithm extends BaseFractalAlgorithm {
     }
     
     @Override
-    public double escapeTime(Complex point, Complex seed) {
+    public double escapeTime(double re, double im, double seedRe, double seedIm, Periodicity periodicity) {
+        // Points closer than this to the saved orbit point count as a repeat
+        double tolerance = periodicity == null ? -1 : periodicity.getTolerance();
+        // Brent's algorithm - save the orbit at every power of two iterations
+        double savedRe = re;
+        double savedIm = im;
+        int checkpoint = 1;
+        
         // Keep iterating until either n is reached or divergence is found
         int i = 0;
-        while (point.modulusSquared() < escapeSquared && i < iterations) {
+        double reSquared = re * re;
+        double imSquared = im * im;
+        while (reSquared + imSquared < escapeSquared && i < iterations) {
+            // Z(i+1) = complement(Z(i) * Z(i)) + c
+            im = -2 * (re * im) + seedIm;
+            re = reSquared - imSquared + seedRe;
+            reSquared = re * re;
+            imSquared = im * im;
+            i++;
+            
+            if (Math.abs(re - savedRe) < tolerance && Math.abs(im - savedIm) < tolerance
+                    && reSquared + imSquared < escapeSquared) {
+                // The orbit has become periodic, so will never diverge
+                periodicity.record(1, iterations - i);
+                periodicity.count(i);
+                return normalise(reSquared + imSquared, iterations);
+            }
+            if (i == checkpoint) {
+                savedRe = re;
+                savedIm = im;
+                checkpoint <<= 1;
+            }
+        }
+        
+        count(periodicity, i);
+        return normalise(reSquared + imSquared, i);
+    }
+    
+    @Override
+    protected double escapeTime(double[] orbit, int index, int from, double seedRe, double seedIm, Periodicity periodicity) {
+        double tolerance = periodicity == null ? -1 : periodicity.getTolerance();
+        double re = orbit[index];
+        double im = orbit[index + 1];
+        // Brent's algorithm, with checkpoints counted from where the orbit was left
+        double savedRe = re;
+        double savedIm = im;
+        int checkpoint = 1;
+        
+        int i = from;
+        int saved = 0;
+        double reSquared = re * re;
+        double imSquared = im * im;
+        while (reSquared + imSquared < escapeSquared && i < iterations) {
+            // Z(i+1) = complement(Z(i) * Z(i)) + c
+            im = -2 * (re * im) + seedIm;
+            re = reSquared - imSquared + seedRe;
+            reSquared = re * re;
+            imSquared = im * im;
+            i++;
+            
+            if (Math.abs(re - savedRe) < tolerance && Math.abs(im - savedIm) < tolerance
+                    && reSquared + imSquared < escapeSquared) {
+                saved = iterations - i;
+                periodicity.record(1, saved);
+                i = iterations;
+                break;
+            }
+            if (i - from == checkpoint) {
+                savedRe = re;
+                savedIm = im;
+                checkpoint <<= 1;
+            }
+        }
+        
+        count(periodicity, i - from - saved);
+        orbit[index] = re;
+        orbit[index + 1] = im;
+        return normalise(reSquared + imSquared, i);
+    }
+    
+    @Override
+    public double escapeTime(DoubleDoubleComplex point, DoubleDoubleComplex seed, Periodicity periodicity) {
+        double tolerance = periodicity == null ? -1 : periodicity.getTolerance();
+        DoubleDoubleComplex z = new DoubleDoubleComplex(point);
+        DoubleDoubleComplex saved = new DoubleDoubleComplex(point);
+        int checkpoint = 1;
+        
+        int i = 0;
+        double modSquared = z.modulusSquared();
+        while (modSquared < escapeSquared && i < iterations) {
+            // Z(i+1) = complement(Z(i) * Z(i)) + c
+            z.square().complement().add(seed);
+            modSquared = z.modulusSquared();
+            i++;
+            
+            if (z.isNear(saved, tolerance) && modSquared < escapeSquared) {
+                periodicity.record(1, iterations - i);
+                periodicity.count(i);
+                return normalise(modSquared, iterations);
+            }
+            if (i == checkpoint) {
+                saved.set(z);
+                checkpoint <<= 1;
+            }
+        }
+        
+        count(periodicity, i);
+        return normalise(modSquared, i);
+    }
+    
+    @Override
+    protected double escapeTimeFixed(Fixed128Complex point, Fixed128Complex seed, Periodicity periodicity) {
+        double tolerance = periodicity == null ? -1 : periodicity.getTolerance();
+        Fixed128Complex z = new Fixed128Complex(point);
+        Fixed128Complex saved = new Fixed128Complex(point);
+        int checkpoint = 1;
+        
+        int i = 0;
+        double modSquared = z.modulusSquared();
+        while (modSquared < escapeSquared && i < iterations) {
             // Z(i+1) = complement(Z(i) * Z(i)) + c
-            point = point.complement().square().add(seed);
+            z.square().complement().add(seed);
+            modSquared = z.modulusSquared();
             i++;
+            
+            if (modSquared < escapeSquared && z.isNear(saved, tolerance)) {
+                periodicity.record(1, iterations - i);
+                periodicity.count(i);
+                return normalise(modSquared, iterations);
+            }
+            if (i == checkpoint) {
+                saved.set(z);
+                checkpoint <<= 1;
+            }
+        }
+        
+        count(periodicity, i);
+        return normalise(modSquared, i);
+    }
+    
+    @Override
+    public double escapeTime(BigFixedComplex point, BigFixedComplex seed, ArbitraryPrecision context) {
+        BigFixedComplex z = point;
+        
+        int i = 0;
+        double modSquared = z.modulusSquared();
+        while (modSquared < escapeSquared && i < iterations) {
+            // Z(i+1) = complement(Z(i) * Z(i)) + c
+            z = z.square().complement().add(seed);
+            modSquared = z.modulusSquared();
+            i++;
+        }
+        context.record(i);
+        
+        return normalise(modSquared, i);
+    }
+    
+    @Override
+    protected double escapeTimeFloat(float re, float im, float seedRe, float seedIm, Periodicity periodicity) {
+        float tolerance = periodicity == null ? -1 : (float) periodicity.getTolerance();
+        float escape = (float) escapeSquared;
+        float savedRe = re;
+        float savedIm = im;
+        int checkpoint = 1;
+        
+        int i = 0;
+        float reSquared = re * re;
+        float imSquared = im * im;
+        while (reSquared + imSquared < escape && i < iterations) {
+            // Z(i+1) = complement(Z(i) * Z(i)) + c
+            im = -2 * (re * im) + seedIm;
+            re = reSquared - imSquared + seedRe;
+            reSquared = re * re;
+            imSquared = im * im;
+            i++;
+            
+            if (Math.abs(re - savedRe) < tolerance && Math.abs(im - savedIm) < tolerance
+                    && reSquared + imSquared < escape) {
+                periodicity.record(1, iterations - i);
+                periodicity.count(i);
+                return normalise(reSquared + imSquared, iterations);
+            }
+            if (i == checkpoint) {
+                savedRe = re;
+                savedIm = im;
+                checkpoint <<= 1;
+            }
+        }
+        
+        count(periodicity, i);
+        return normalise(reSquared + imSquared, i);
+    }
+    
+    @Override
+    protected void escapeTimeRow(double[] re, double im, double seedRe, double seedIm, boolean julia, double[] out, Periodicity periodicity, double[] orbit) {
+        double tolerance = periodicity == null ? -1 : periodicity.getTolerance();
+        double ci = julia ? seedIm : im;
+        long periodic = 0, saved = 0;
+        // Masked lanes are credited the whole limit without iterating
+        long calculated = 0, masked = 0;
+        
+        int x = 0;
+        // Iterate 4 independent orbits in lock-step so that their
+        // dependency chains overlap, masking off lanes as they finish
+        for (; x + LANES <= re.length; x += LANES) {
+            double cr0 = julia ? seedRe : re[x];
+            double cr1 = julia ? seedRe : re[x + 1];
+            double cr2 = julia ? seedRe : re[x + 2];
+            double cr3 = julia ? seedRe : re[x + 3];
+            
+            // Lanes known to be inside the set start off masked
+            boolean live0 = julia || !isInterior(cr0, ci);
+            boolean live1 = julia || !isInterior(cr1, ci);
+            boolean live2 = julia || !isInterior(cr2, ci);
+            boolean live3 = julia || !isInterior(cr3, ci);
+            int n0 = live0 ? 0 : iterations;
+            int n1 = live1 ? 0 : iterations;
+            int n2 = live2 ? 0 : iterations;
+            int n3 = live3 ? 0 : iterations;
+            masked += (live0 ? 0 : 1) + (live1 ? 0 : 1) + (live2 ? 0 : 1) + (live3 ? 0 : 1);
+            
+            double r0 = re[x], i0 = im;
+            double r1 = re[x + 1], i1 = im;
+            double r2 = re[x + 2], i2 = im;
+            double r3 = re[x + 3], i3 = im;
+            double rs0 = r0 * r0, is0 = i0 * i0;
+            double rs1 = r1 * r1, is1 = i1 * i1;
+            double rs2 = r2 * r2, is2 = i2 * i2;
+            double rs3 = r3 * r3, is3 = i3 * i3;
+            
+            // Brent's algorithm - every lane shares the same checkpoints
+            double sr0 = r0, si0 = i0;
+            double sr1 = r1, si1 = i1;
+            double sr2 = r2, si2 = i2;
+            double sr3 = r3, si3 = i3;
+            int checkpoint = 1;
+            
+            for (int i = 0; i < iterations; i++) {
+                live0 = live0 && rs0 + is0 < escapeSquared;
+                live1 = live1 && rs1 + is1 < escapeSquared;
+                live2 = live2 && rs2 + is2 < escapeSquared;
+                live3 = live3 && rs3 + is3 < escapeSquared;
+                if (!(live0 || live1 || live2 || live3)) {
+                    break;
+                }
+                // Z(i+1) = complement(Z(i) * Z(i)) + c
+                if (live0) {
+                    i0 = -2 * (r0 * i0) + ci;
+                    r0 = rs0 - is0 + cr0;
+                    rs0 = r0 * r0;
+                    is0 = i0 * i0;
+                    n0++;
+                    if (Math.abs(r0 - sr0) < tolerance && Math.abs(i0 - si0) < tolerance
+                            && rs0 + is0 < escapeSquared) {
+                        live0 = false;
+                        periodic++;
+                        saved += iterations - n0;
+                        n0 = iterations;
+                    }
+                }
+                if (live1) {
+                    i1 = -2 * (r1 * i1) + ci;
+                    r1 = rs1 - is1 + cr1;
+                    rs1 = r1 * r1;
+                    is1 = i1 * i1;
+                    n1++;
+                    if (Math.abs(r1 - sr1) < tolerance && Math.abs(i1 - si1) < tolerance
+                            && rs1 + is1 < escapeSquared) {
+                        live1 = false;
+                        periodic++;
+                        saved += iterations - n1;
+                        n1 = iterations;
+                    }
+                }
+                if (live2) {
+                    i2 = -2 * (r2 * i2) + ci;
+                    r2 = rs2 - is2 + cr2;
+                    rs2 = r2 * r2;
+                    is2 = i2 * i2;
+                    n2++;
+                    if (Math.abs(r2 - sr2) < tolerance && Math.abs(i2 - si2) < tolerance
+                            && rs2 + is2 < escapeSquared) {
+                        live2 = false;
+                        periodic++;
+                        saved += iterations - n2;
+                        n2 = iterations;
+                    }
+                }
+                if (live3) {
+                    i3 = -2 * (r3 * i3) + ci;
+                    r3 = rs3 - is3 + cr3;
+                    rs3 = r3 * r3;
+                    is3 = i3 * i3;
+                    n3++;
+                    if (Math.abs(r3 - sr3) < tolerance && Math.abs(i3 - si3) < tolerance
+                            && rs3 + is3 < escapeSquared) {
+                        live3 = false;
+                        periodic++;
+                        saved += iterations - n3;
+                        n3 = iterations;
+                    }
+                }
+                if (i + 1 == checkpoint) {
+                    sr0 = r0;
+                    si0 = i0;
+                    sr1 = r1;
+                    si1 = i1;
+                    sr2 = r2;
+                    si2 = i2;
+                    sr3 = r3;
+                    si3 = i3;
+                    checkpoint <<= 1;
+                }
+            }
+            
+            out[x] = normalise(rs0 + is0, n0);
+            out[x + 1] = normalise(rs1 + is1, n1);
+            out[x + 2] = normalise(rs2 + is2, n2);
+            out[x + 3] = normalise(rs3 + is3, n3);
+            calculated += n0 + n1 + n2 + n3;
+            if (orbit != null) {
+                orbit[2 * x] = r0;
+                orbit[2 * x + 1] = i0;
+                orbit[2 * x + 2] = r1;
+                orbit[2 * x + 3] = i1;
+                orbit[2 * x + 4] = r2;
+                orbit[2 * x + 5] = i2;
+                orbit[2 * x + 6] = r3;
+                orbit[2 * x + 7] = i3;
+            }
+        }
+        
+        if (periodic > 0) {
+            periodicity.record(periodic, saved);
         }
+        count(periodicity, calculated - saved - masked * iterations);
         
-        return normalise(point, i);
+        // Finish off any points which don't fill a whole group
+        escapeTimeScalar(re, im, seedRe, seedIm, julia, out, periodicity, orbit, x);
     }
     
     @Override
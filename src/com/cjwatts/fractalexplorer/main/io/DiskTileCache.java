@@ -0,0 +1,470 @@
+package com.cjwatts.fractalexplorer.main.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import com.cjwatts.fractalexplorer.main.panels.TileCache;
+
+/**
+ * Escape time tiles kept on disk between runs, beneath a TileCache
+ * 
+ * Tiles are appended to memory-mapped segment files, and never changed once
+ * written. A tile which gains samples is appended again, and the later
+ * record wins. There is no separate index to fall out of step: the index is
+ * rebuilt by reading the segments when the cache is opened. Each record
+ * carries a checksum, and its marker is written last, so a record cut short
+ * by a crash is found and ignored along with the rest of its segment. Once
+ * the segments exceed the capacity the oldest is deleted.
+ * 
+ * Each record is tagged with the digest of the render which calculated it,
+ * so if a render is found to have stored bad tiles, the segments holding
+ * them can be dropped.
+ */
+public class DiskTileCache {
+    
+    // Default directory, relative to the working directory like favourites.xml
+    public static final String DEFAULT_DIRECTORY = "tiles";
+    
+    // Default largest size of the segment files together, in bytes
+    public static final long DEFAULT_CAPACITY = 256L << 20;
+    
+    // System properties setting the directory and capacity
+    public static final String DIRECTORY_PROPERTY = "fractalexplorer.tileDirectory";
+    public static final String CAPACITY_PROPERTY = "fractalexplorer.tileDirectoryBytes";
+    
+    // Size of each segment file, in bytes
+    public static final int SEGMENT_SIZE = 16 << 20;
+    
+    // Marks the start of a complete record - an unwritten one reads as zero
+    private static final int MARKER = 0x46544332;
+    
+    // Marker, tag length and key length
+    private static final int HEADER_LENGTH = 12;
+    
+    private static final int TILE_LENGTH = TileCache.TILE_SIZE * TileCache.TILE_SIZE;
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+    
+    private final File directory;
+    private final long capacity;
+    private final RandomAccessFile lockFile;
+    private final FileLock lock;
+    
+    // Segments, oldest first, and the end of the data in the newest
+    private final List<Segment> segments = new ArrayList<Segment>();
+    private int end;
+    private boolean sealed;
+    
+    // Where the latest record of each tile is
+    private final Map<String, Record> index = new HashMap<String, Record>();
+    
+    /**
+     * Open the cache in the given directory, creating it if needed
+     * @param directory
+     * @param capacity Largest size of the segment files together, in bytes.
+     *        At least two segments are always kept.
+     * @throws IOException If the directory can't be used, or is in use by another process
+     */
+    public DiskTileCache(File directory, long capacity) throws IOException {
+        this.directory = directory;
+        this.capacity = Math.max(capacity, 2L * SEGMENT_SIZE);
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Could not create tile directory " + directory);
+        }
+        
+        // Only one process may append at a time
+        this.lockFile = new RandomAccessFile(new File(directory, "lock"), "rw");
+        FileLock lock;
+        try {
+            lock = lockFile.getChannel().tryLock();
+        } catch (OverlappingFileLockException ex) {
+            // Already open in this process
+            lock = null;
+        }
+        this.lock = lock;
+        if (lock == null) {
+            lockFile.close();
+            throw new IOException("Tile directory " + directory + " is in use by another process");
+        }
+        
+        File[] files = directory.listFiles();
+        List<Integer> numbers = new ArrayList<Integer>();
+        for (File file : files) {
+            String name = file.getName();
+            if (name.startsWith("segment-") && name.endsWith(".dat")) {
+                try {
+                    numbers.add(Integer.parseInt(name.substring(8, name.length() - 4)));
+                } catch (NumberFormatException ignore) {
+                }
+            }
+        }
+        Collections.sort(numbers);
+        for (int number : numbers) {
+            Segment segment = new Segment(number);
+            segments.add(segment);
+            end = scan(segment);
+        }
+        // Append after a damaged record's segment, never into it
+        if (segments.isEmpty() || sealed) {
+            startSegment();
+        }
+        evict();
+    }
+    
+    /**
+     * Open the cache in the directory and capacity set by the
+     * {@value #DIRECTORY_PROPERTY} and {@value #CAPACITY_PROPERTY} system
+     * properties, or else the defaults
+     * @throws IOException
+     */
+    public static DiskTileCache openDefault() throws IOException {
+        return new DiskTileCache(new File(System.getProperty(DIRECTORY_PROPERTY, DEFAULT_DIRECTORY)),
+                Long.getLong(CAPACITY_PROPERTY, DEFAULT_CAPACITY));
+    }
+    
+    /**
+     * Read a segment's records into the index, stopping at the first which
+     * is incomplete or damaged
+     * @return Offset of the end of the good records
+     */
+    private int scan(Segment segment) {
+        ByteBuffer buffer = segment.buffer.duplicate();
+        int offset = 0;
+        sealed = false;
+        while (offset + 8 <= SEGMENT_SIZE) {
+            int marker = buffer.getInt(offset);
+            if (marker == 0) {
+                return offset;
+            }
+            int length = length(buffer, offset);
+            if (marker != MARKER || length < 0) {
+                break;
+            }
+            int tagLength = buffer.getInt(offset + 4);
+            int keyLength = buffer.getInt(offset + 8);
+            byte[] body = new byte[length - HEADER_LENGTH - 8];
+            buffer.position(offset + HEADER_LENGTH);
+            buffer.get(body);
+            if (buffer.getLong() != checksum(body)) {
+                break;
+            }
+            String key = new String(body, tagLength, keyLength, UTF8);
+            double[] tile = new double[TILE_LENGTH];
+            ByteBuffer.wrap(body, tagLength + keyLength, TILE_LENGTH * 8).asDoubleBuffer().get(tile);
+            index.put(key, new Record(segment, offset, HEADER_LENGTH + tagLength + keyLength, known(tile)));
+            offset += length;
+        }
+        sealed = offset + 8 <= SEGMENT_SIZE && buffer.getInt(offset) != 0;
+        return offset;
+    }
+    
+    /**
+     * Find a tile
+     * @param key
+     * @return Escape times of the tile in row-major order, or null if not kept
+     */
+    public synchronized double[] get(String key) {
+        Record record = index.get(key);
+        if (record == null) {
+            return null;
+        }
+        ByteBuffer buffer = record.segment.buffer.duplicate();
+        buffer.position(record.offset + record.tileOffset);
+        double[] tile = new double[TILE_LENGTH];
+        buffer.asDoubleBuffer().get(tile);
+        return tile;
+    }
+    
+    /**
+     * Keep a tile, unless it knows no more samples than the one already kept
+     * @param key
+     * @param tag Digest of the render which calculated the tile
+     * @param tile Escape times of the tile in row-major order, NaN where not known
+     */
+    public synchronized void put(String key, String tag, double[] tile) {
+        if (segments.isEmpty()) {
+            // Closed
+            return;
+        }
+        int known = known(tile);
+        Record old = index.get(key);
+        if (known == 0 || old != null && old.known >= known) {
+            return;
+        }
+        
+        byte[] tagBytes = tag.getBytes(UTF8);
+        byte[] keyBytes = key.getBytes(UTF8);
+        int length = recordLength(tagBytes.length, keyBytes.length);
+        if (length > SEGMENT_SIZE) {
+            return;
+        }
+        if (end + length > SEGMENT_SIZE) {
+            try {
+                startSegment();
+            } catch (IOException ex) {
+                System.err.println("Could not start tile segment: " + ex);
+                return;
+            }
+            evict();
+        }
+        
+        byte[] body = new byte[length - HEADER_LENGTH - 8];
+        System.arraycopy(tagBytes, 0, body, 0, tagBytes.length);
+        System.arraycopy(keyBytes, 0, body, tagBytes.length, keyBytes.length);
+        ByteBuffer.wrap(body, tagBytes.length + keyBytes.length, TILE_LENGTH * 8).asDoubleBuffer().put(tile);
+        
+        // Everything but the marker first, so a record is never marked complete before it is
+        Segment segment = segments.get(segments.size() - 1);
+        ByteBuffer buffer = segment.buffer.duplicate();
+        buffer.putInt(end + 4, tagBytes.length);
+        buffer.putInt(end + 8, keyBytes.length);
+        buffer.position(end + HEADER_LENGTH);
+        buffer.put(body);
+        buffer.putLong(checksum(body));
+        buffer.putInt(end, MARKER);
+        
+        index.put(key, new Record(segment, end, HEADER_LENGTH + tagBytes.length + keyBytes.length, known));
+        end += length;
+    }
+    
+    /**
+     * Delete every segment holding a tile calculated by the given render,
+     * along with the other tiles in those segments
+     * @param tag Digest of the render, as given to put
+     * @return Number of segments deleted
+     */
+    public synchronized int drop(String tag) {
+        byte[] tagBytes = tag.getBytes(UTF8);
+        List<Segment> dropped = new ArrayList<Segment>();
+        for (Segment segment : segments) {
+            if (holds(segment, tagBytes)) {
+                dropped.add(segment);
+            }
+        }
+        if (dropped.isEmpty()) {
+            return 0;
+        }
+        // Never append into an older segment than the newest
+        boolean appendable = true;
+        if (dropped.contains(segments.get(segments.size() - 1))) {
+            try {
+                startSegment();
+            } catch (IOException ex) {
+                System.err.println("Could not start tile segment: " + ex);
+                appendable = false;
+            }
+        }
+        for (Segment segment : dropped) {
+            segments.remove(segment);
+            delete(segment);
+        }
+        if (!appendable) {
+            close();
+        }
+        return dropped.size();
+    }
+    
+    /**
+     * @return Whether any complete record in the segment has the given tag
+     */
+    private boolean holds(Segment segment, byte[] tag) {
+        ByteBuffer buffer = segment.buffer.duplicate();
+        int offset = 0;
+        while (offset + HEADER_LENGTH <= SEGMENT_SIZE && buffer.getInt(offset) == MARKER) {
+            int length = length(buffer, offset);
+            if (length < 0) {
+                break;
+            }
+            if (buffer.getInt(offset + 4) == tag.length) {
+                byte[] other = new byte[tag.length];
+                buffer.position(offset + HEADER_LENGTH);
+                buffer.get(other);
+                if (Arrays.equals(tag, other)) {
+                    return true;
+                }
+            }
+            offset += length;
+        }
+        return false;
+    }
+    
+    /**
+     * Start a new, empty segment to append to
+     * @throws IOException
+     */
+    private void startSegment() throws IOException {
+        int number = segments.isEmpty() ? 1 : segments.get(segments.size() - 1).number + 1;
+        segments.add(new Segment(number));
+        end = 0;
+        sealed = false;
+    }
+    
+    /**
+     * Delete the oldest segments until within the capacity
+     */
+    private void evict() {
+        while ((long) segments.size() * SEGMENT_SIZE > capacity && segments.size() > 1) {
+            delete(segments.remove(0));
+        }
+    }
+    
+    /**
+     * Forget the tiles in a segment which is no longer listed, and delete its file
+     */
+    private void delete(Segment segment) {
+        Iterator<Record> records = index.values().iterator();
+        while (records.hasNext()) {
+            if (records.next().segment == segment) {
+                records.remove();
+            }
+        }
+        segment.close();
+        if (!segment.file.delete()) {
+            // Still mapped on some platforms - it is no longer indexed, so harmless
+            segment.file.deleteOnExit();
+        }
+    }
+    
+    /**
+     * Write everything to disk and release the directory. The cache can't
+     * be used afterwards.
+     */
+    public synchronized void close() {
+        for (Segment segment : segments) {
+            segment.buffer.force();
+            segment.close();
+        }
+        segments.clear();
+        index.clear();
+        try {
+            lock.release();
+            lockFile.close();
+        } catch (IOException ex) {
+            System.err.println("Could not release tile directory: " + ex);
+        }
+    }
+    
+    /**
+     * @return Number of tiles kept
+     */
+    public synchronized int getTileCount() {
+        return index.size();
+    }
+    
+    /**
+     * @return Size of the segment files, in bytes
+     */
+    public synchronized long getSize() {
+        return (long) segments.size() * SEGMENT_SIZE;
+    }
+    
+    /**
+     * @return The directory the segment files are in
+     */
+    public File getDirectory() {
+        return directory;
+    }
+    
+    /**
+     * @return Bytes taken by a record - marker, tag and key lengths, tag,
+     *         key, tile, checksum
+     */
+    private static int recordLength(int tagLength, int keyLength) {
+        return HEADER_LENGTH + tagLength + keyLength + TILE_LENGTH * 8 + 8;
+    }
+    
+    /**
+     * @return Bytes taken by the record at the offset, or -1 if its lengths
+     *         don't fit in the segment
+     */
+    private static int length(ByteBuffer buffer, int offset) {
+        if (offset + HEADER_LENGTH > SEGMENT_SIZE) {
+            return -1;
+        }
+        int tagLength = buffer.getInt(offset + 4);
+        int keyLength = buffer.getInt(offset + 8);
+        if (tagLength < 0 || keyLength <= 0 || tagLength + keyLength > SEGMENT_SIZE
+                || recordLength(tagLength, keyLength) > SEGMENT_SIZE - offset) {
+            return -1;
+        }
+        return recordLength(tagLength, keyLength);
+    }
+    
+    private static long checksum(byte[] body) {
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        return crc.getValue();
+    }
+    
+    /**
+     * @return Number of samples of the tile which are known
+     */
+    private static int known(double[] tile) {
+        int known = 0;
+        for (double escape : tile) {
+            if (!Double.isNaN(escape)) {
+                known++;
+            }
+        }
+        return known;
+    }
+    
+    /**
+     * A segment file, mapped into memory
+     */
+    private class Segment {
+        
+        private final int number;
+        private final File file;
+        private final RandomAccessFile access;
+        private final MappedByteBuffer buffer;
+        
+        public Segment(int number) throws IOException {
+            this.number = number;
+            this.file = new File(directory, String.format("segment-%06d.dat", number));
+            this.access = new RandomAccessFile(file, "rw");
+            access.setLength(SEGMENT_SIZE);
+            this.buffer = access.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, SEGMENT_SIZE);
+        }
+        
+        public void close() {
+            try {
+                access.close();
+            } catch (IOException ex) {
+                System.err.println("Could not close " + file + ": " + ex);
+            }
+        }
+    }
+    
+    /**
+     * Where a tile's latest record is, and how many of its samples are known
+     */
+    private static class Record {
+        
+        private final Segment segment;
+        private final int offset;
+        private final int tileOffset;
+        private final int known;
+        
+        public Record(Segment segment, int offset, int tileOffset, int known) {
+            this.segment = segment;
+            this.offset = offset;
+            this.tileOffset = tileOffset;
+            this.known = known;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.cjwatts.fractalexplorer.main.io;
 
 import com.cjwatts.fractalexplorer.main.FractalColourScheme;
 import com.cjwatts.fractalexplorer.main.algorithms.BaseFractalAlgorithm;
+import com.cjwatts.fractalexplorer.main.util.BigComplex;
 import com.cjwatts.fractalexplorer.main.util.Complex;
 
 public class Favourite implements Comparable<Favourite> {
@@ -9,7 +10,7 @@ public class Favourite implements Comparable<Favourite> {
     private String name;
     private BaseFractalAlgorithm algorithm;
     private Complex selected;
-    private Complex bounds[];
+    private BigComplex bounds[];
     private FractalColourScheme scheme;
     
     /**
@@ -18,10 +19,10 @@ public class Favourite implements Comparable<Favourite> {
      * @param name
      * @param algorithm
      * @param selected
-     * @param bounds Index 0 = bottom left, index 1 = top right
+     * @param bounds Index 0 = bottom left, index 1 = top right, at full precision
      * @param scheme
      */
-    public Favourite(String name, BaseFractalAlgorithm algorithm, Complex selected, Complex[] bounds, FractalColourScheme scheme) {
+    public Favourite(String name, BaseFractalAlgorithm algorithm, Complex selected, BigComplex[] bounds, FractalColourScheme scheme) {
         this.name = name;
         this.algorithm = algorithm;
         this.selected = selected;
@@ -58,11 +59,11 @@ public class Favourite implements Comparable<Favourite> {
         this.selected = selected;
     }
     
-    public Complex[] getBounds() {
+    public BigComplex[] getBounds() {
         return bounds;
     }
     
-    public void setBounds(Complex[] bounds) {
+    public void setBounds(BigComplex[] bounds) {
         this.bounds = bounds;
     }
     
@@ -2,6 +2,7 @@ package com.cjwatts.fractalexplorer.main.io;
 
 import java.awt.Color;
 import java.io.IOException;
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -27,6 +28,7 @@ import com.cjwatts.fractalexplorer.main.FractalColourScheme;
 import com.cjwatts.fractalexplorer.main.algorithms.BaseFractalAlgorithm;
 import com.cjwatts.fractalexplorer.main.algorithms.MandelbrotAlgorithm;
 import com.cjwatts.fractalexplorer.main.panels.FractalPanel;
+import com.cjwatts.fractalexplorer.main.util.BigComplex;
 import com.cjwatts.fractalexplorer.main.util.Complex;
 
 /**
@@ -72,7 +74,7 @@ public class Favourites implements List<Favourite> {
             String name = null;
             BaseFractalAlgorithm algorithm = null;
             Complex selected = null;
-            Complex[] bounds = new Complex[2];
+            BigComplex[] bounds = null;
             FractalColourScheme scheme = null;
             
             for (int i = 0; i < l0.getLength(); i++) {
@@ -137,8 +139,8 @@ public class Favourites implements List<Favourite> {
                         l2 = n2.getChildNodes();
                         
                         // Attibutes to attain
-                        Double aReal = null, aImaginary = null;
-                        Double bReal = null, bImaginary = null;
+                        BigDecimal aReal = null, aImaginary = null;
+                        BigDecimal bReal = null, bImaginary = null;
                         
                         for (int k = 0; k < l2.getLength(); k++) {
                             n3 = l2.item(k);
@@ -149,11 +151,11 @@ public class Favourites implements List<Favourite> {
                                     n4 = l3.item(l);
                                     // <real>
                                     if (n4.getNodeName().equals("real")) {
-                                        aReal = Double.parseDouble(n4.getTextContent());
+                                        aReal = new BigDecimal(n4.getTextContent().trim());
                                     }
                                     // <imaginary>
                                     else if (n4.getNodeName().equals("imaginary")) {
-                                        aImaginary = Double.parseDouble(n4.getTextContent());
+                                        aImaginary = new BigDecimal(n4.getTextContent().trim());
                                     }
                                 }
                             }
@@ -161,28 +163,30 @@ public class Favourites implements List<Favourite> {
                             // <topright>
                             else if (n3.getNodeName().equals("topright")) {
                                 l3 = n3.getChildNodes();
-                                for (int l = 0; l < l2.getLength(); l++) {
+                                for (int l = 0; l < l3.getLength(); l++) {
                                     n4 = l3.item(l);
                                     // <real>
                                     if (n4.getNodeName().equals("real")) {
-                                        bReal = Double.parseDouble(n4.getTextContent());
+                                        bReal = new BigDecimal(n4.getTextContent().trim());
                                     }
                                     // <imaginary>
                                     else if (n4.getNodeName().equals("imaginary")) {
-                                        bImaginary = Double.parseDouble(n4.getTextContent());
+                                        bImaginary = new BigDecimal(n4.getTextContent().trim());
                                     }
                                 }
                             }
                             //</topright>
                         }
                         if (aReal == null || aImaginary == null || bReal == null || bImaginary == null) {
-                            aReal = FractalPanel.DEFAULT_REAL_MIN;
-                            aImaginary = FractalPanel.DEFAULT_IMAGINARY_MIN;
-                            bReal = FractalPanel.DEFAULT_REAL_MAX;
-                            bImaginary = FractalPanel.DEFAULT_IMAGINARY_MAX;
+                            aReal = BigDecimal.valueOf(FractalPanel.DEFAULT_REAL_MIN);
+                            aImaginary = BigDecimal.valueOf(FractalPanel.DEFAULT_IMAGINARY_MIN);
+                            bReal = BigDecimal.valueOf(FractalPanel.DEFAULT_REAL_MAX);
+                            bImaginary = BigDecimal.valueOf(FractalPanel.DEFAULT_IMAGINARY_MAX);
                         }
-                        bounds[0] = new Complex(aReal, aImaginary);
-                        bounds[1] = new Complex(bReal, bImaginary);
+                        bounds = new BigComplex[] {
+                            new BigComplex(aReal, aImaginary),
+                            new BigComplex(bReal, bImaginary)
+                        };
                     }
                     // </bounds>
                     // <scheme>
@@ -307,11 +311,11 @@ public class Favourites implements List<Favourite> {
                 e3 = doc.createElement("bottomleft");
                 // <real>
                 e4 = doc.createElement("real");
-                e4.appendChild(doc.createTextNode(f.getBounds()[0].real() + ""));
+                e4.appendChild(doc.createTextNode(f.getBounds()[0].real().toString()));
                 e3.appendChild(e4);
                 // <imaginary>
                 e4 = doc.createElement("imaginary");
-                e4.appendChild(doc.createTextNode(f.getBounds()[0].imaginary() + ""));
+                e4.appendChild(doc.createTextNode(f.getBounds()[0].imaginary().toString()));
                 e3.appendChild(e4);
                 e2.appendChild(e3);
                 // </bottomleft>
@@ -319,11 +323,11 @@ public class Favourites implements List<Favourite> {
                 e3 = doc.createElement("topright");
                 // <real>
                 e4 = doc.createElement("real");
-                e4.appendChild(doc.createTextNode(f.getBounds()[1].real() + ""));
+                e4.appendChild(doc.createTextNode(f.getBounds()[1].real().toString()));
                 e3.appendChild(e4);
                 // <imaginary>
                 e4 = doc.createElement("imaginary");
-                e4.appendChild(doc.createTextNode(f.getBounds()[1].imaginary() + ""));
+                e4.appendChild(doc.createTextNode(f.getBounds()[1].imaginary().toString()));
                 e3.appendChild(e4);
                 // </topright>
                 e2.appendChild(e3);
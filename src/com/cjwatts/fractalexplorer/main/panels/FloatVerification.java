@@ -0,0 +1,69 @@
+package com.cjwatts.fractalexplorer.main.panels;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pixel by pixel comparison of float and double renders for a single render
+ * 
+ * Shared by all render threads, so the counters are atomic.
+ */
+public class FloatVerification {
+    
+    private final AtomicLong pixels = new AtomicLong();
+    private final AtomicLong differences = new AtomicLong();
+    private volatile double maxError;
+    
+    /**
+     * Record a pixel rendered both ways
+     * 
+     * @param floatEscape Escape time from the float kernel
+     * @param doubleEscape Escape time from the double kernel
+     * @param same True if both escape times map to the same colour
+     */
+    public void record(double floatEscape, double doubleEscape, boolean same) {
+        pixels.incrementAndGet();
+        if (!same) {
+            differences.incrementAndGet();
+        }
+        double error = Math.abs(floatEscape - doubleEscape);
+        if (error > maxError) {
+            synchronized (this) {
+                maxError = Math.max(maxError, error);
+            }
+        }
+    }
+    
+    /**
+     * @return Number of pixels compared
+     */
+    public long getPixels() {
+        return pixels.get();
+    }
+    
+    /**
+     * @return Number of pixels which are a different colour in the float render
+     */
+    public long getDifferences() {
+        return differences.get();
+    }
+    
+    /**
+     * @return Fraction of pixels which are the same colour in both renders
+     */
+    public double getAccuracy() {
+        long p = getPixels();
+        return p == 0 ? 1 : 1 - (double) getDifferences() / p;
+    }
+    
+    /**
+     * @return Largest difference in normalised escape time between the renders
+     */
+    public synchronized double getMaxError() {
+        return maxError;
+    }
+    
+    @Override
+    public String toString() {
+        return getDifferences() + " of " + getPixels() + " pixels differ, max escape error " + getMaxError();
+    }
+}
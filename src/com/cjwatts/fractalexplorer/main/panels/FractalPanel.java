@@ -5,14 +5,29 @@ import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.Point;
 import java.awt.Rectangle;
-import java.awt.image.ColorModel;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
 import java.awt.image.BufferedImage;
-import java.awt.image.DirectColorModel;
-import java.awt.image.WritableRaster;
+import java.awt.image.DataBufferInt;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveAction;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.swing.JPanel;
 import javax.swing.JProgressBar;
@@ -20,8 +35,17 @@ import javax.swing.SwingWorker;
 
 import com.cjwatts.fractalexplorer.main.FractalColourScheme;
 import com.cjwatts.fractalexplorer.main.FractalExplorer;
+import com.cjwatts.fractalexplorer.main.algorithms.ArbitraryPrecision;
 import com.cjwatts.fractalexplorer.main.algorithms.FractalAlgorithm;
+import com.cjwatts.fractalexplorer.main.algorithms.MandelbrotAlgorithm;
+import com.cjwatts.fractalexplorer.main.algorithms.Periodicity;
+import com.cjwatts.fractalexplorer.main.algorithms.Perturbation;
+import com.cjwatts.fractalexplorer.main.util.BigComplex;
+import com.cjwatts.fractalexplorer.main.util.BigFixedComplex;
 import com.cjwatts.fractalexplorer.main.util.Complex;
+import com.cjwatts.fractalexplorer.main.util.DoubleDouble;
+import com.cjwatts.fractalexplorer.main.util.DoubleDoubleComplex;
+import com.cjwatts.fractalexplorer.main.util.Fixed128Complex;
 
 public class FractalPanel extends JPanel {
     
@@ -32,10 +56,64 @@ public class FractalPanel extends JPanel {
     public static final double DEFAULT_IMAGINARY_MIN = -1.6;
     public static final double DEFAULT_IMAGINARY_MAX = 1.6;
     
-    private double rmin = DEFAULT_REAL_MIN;
-    private double rmax = DEFAULT_REAL_MAX;
-    private double imin = DEFAULT_IMAGINARY_MIN;
-    private double imax = DEFAULT_IMAGINARY_MAX;
+    // Orbit points closer than this fraction of a pixel are considered equal
+    public static final double PERIODICITY_TOLERANCE = 1e-4;
+    
+    // Smallest pixel spacing, relative to the coordinates, which floats can render
+    public static final double FLOAT_RESOLUTION = 1e-5;
+    
+    // Smallest pixel spacing, relative to the coordinates, which doubles can render
+    public static final double DOUBLE_RESOLUTION = 1e-13;
+    
+    // Smallest pixel spacing, relative to the coordinates, which double-doubles can render
+    public static final double DOUBLE_DOUBLE_RESOLUTION = 1e-29;
+    
+    // Maximum number of reference orbits per perturbation render
+    public static final int MAX_REFERENCES = 32;
+    
+    // Width and height of each render tile - small enough that there are
+    // many more tiles than threads, so expensive tiles don't hold up the rest
+    public static final int TILE_SIZE = 64;
+    
+    // Time between progress bar updates, in milliseconds
+    public static final long PROGRESS_INTERVAL = 50;
+    
+    // Points sampled across and down each tile to estimate the iterations it will take
+    public static final int TILE_SAMPLES = 2;
+    
+    // Rectangles with fewer interior pixels across than this are calculated rather than split
+    public static final int MIN_SUBDIVISION = 4;
+    
+    // Spacing of the pixels calculated by the first solid guessing pass
+    public static final int GUESS_STEP = 16;
+    
+    // Default largest difference in escape time across a block that solid guessing fills
+    public static final double GUESS_TOLERANCE = 1e-3;
+    
+    // Largest fraction of a pixel by which a pan or zoom can miss the last
+    // render's pixel grid and still reuse it
+    public static final double PAN_TOLERANCE = 1e-6;
+    
+    // Largest whole number zoom, in or out, which still reuses the last render
+    public static final int ZOOM_REUSE_LIMIT = 16;
+    
+    // Solid guessing pixel states
+    private static final byte UNKNOWN = 0;
+    private static final byte GUESSED = 1;
+    private static final byte COMPUTED = 2;
+    
+    // Bounds at full precision - the request keeps rounded copies
+    private BigDecimal exactRmin = BigDecimal.valueOf(DEFAULT_REAL_MIN);
+    private BigDecimal exactRmax = BigDecimal.valueOf(DEFAULT_REAL_MAX);
+    private BigDecimal exactImin = BigDecimal.valueOf(DEFAULT_IMAGINARY_MIN);
+    private BigDecimal exactImax = BigDecimal.valueOf(DEFAULT_IMAGINARY_MAX);
+    
+    private Precision precision = Precision.AUTO;
+    private RenderStrategy strategy = RenderStrategy.FULL;
+    private double guessTolerance = GUESS_TOLERANCE;
+    private boolean floatAuto = false;
+    private boolean floatVerification = false;
+    private FloatVerification verification;
     
     // Put crosshairs and zoom rectangle off-screen
     private Point crosshairs;
@@ -43,8 +121,21 @@ public class FractalPanel extends JPanel {
     
     private FractalAlgorithm algorithm;
     private FractalColourScheme scheme = FractalColourScheme.DEFAULT;
+    private double paletteOffset = 0;
+    
+    private boolean periodicityCheck = true;
+    private boolean keepOrbits = true;
+    private Periodicity periodicity;
+    private ArbitraryPrecision arbitraryPrecision;
+    private PixelCounts pixelCounts;
     
+    // What the panel would render now - replaced only when a setter changes it
+    private volatile RenderRequest request;
     private final RenderCache cache = new RenderCache();
+    // Escape times of earlier views, shared with other panels
+    private TileCache tileCache = TileCache.getShared();
+    // Generation of the newest renderer created for this panel
+    private final AtomicLong generations = new AtomicLong();
     private JProgressBar progressBar;
     private SwingWorker<Integer, Integer> worker;
     
@@ -74,26 +165,40 @@ public class FractalPanel extends JPanel {
         final int height = this.getHeight();
         
         // Check whether a re-render is required, or just another paint
-        if (cache.isDirty()) {
+        currentRequest();
+        boolean dirty = cache.isDirty();
+        if (dirty && cache.canRecolour()) {
+            // Only the colouring has changed, so remap the last render's escape times
+            cache.recolour(scheme, paletteOffset);
+        } else if (dirty) {
             // If the previous worker isn't finished, cancel it
             if (worker != null && !worker.isDone())
                 worker.cancel(true);
-            
+                
             worker = new SwingWorker<Integer, Integer>() {
                 
                 private Renderer renderer = new Renderer(width, height);
                 
                 @Override
                 protected Integer doInBackground() throws Exception {
-                    // Run a new render and monitor progress
-                    Thread main = new Thread(renderer);
-                    main.start();
+                    // Run a new render on the shared executor and monitor progress
+                    Future<?> render = RenderExecutor.getShared().submit(renderer);
                     
-                    while (main.isAlive() && !isCancelled()) {
+                    while (!render.isDone() && !isCancelled()) {
                         publish(renderer.getProgress());
+                        try {
+                            // Sleep until the render finishes or it's time for another update
+                            render.get(PROGRESS_INTERVAL, TimeUnit.MILLISECONDS);
+                        } catch (TimeoutException ignore) {
+                        } catch (InterruptedException ex) {
+                            break;
+                        }
+                    }
+                    // If break from cancelled, stop the render
+                    if (!render.isDone()) {
+                        renderer.cancel();
+                        render.cancel(true);
                     }
-                    // If break from cancelled, interrupt the main thread
-                    if (main.isAlive()) main.interrupt();
                     
                     return renderer.getProgress();
                 }
@@ -101,7 +206,11 @@ public class FractalPanel extends JPanel {
                 @Override
                 protected void process(List<Integer> chunks) {
                     if (progressBar != null) {
-                        progressBar.setValue(chunks.get(0));
+                        int percent = chunks.get(chunks.size() - 1);
+                        long eta = renderer.getTimeRemaining();
+                        progressBar.setValue(percent);
+                        progressBar.setStringPainted(eta >= 0);
+                        progressBar.setString(percent + "% - " + (eta + 999) / 1000 + "s left");
                     }
                 }
                 
@@ -110,10 +219,14 @@ public class FractalPanel extends JPanel {
                     // Reset progress bar
                     if (progressBar != null) {
                         progressBar.setValue(0);
+                        progressBar.setStringPainted(false);
                     }
-                    // Set the render image
-                    if (renderer.isRendered()) {
-                        cache.setImage(renderer.getRender());
+                    // Set the render image, unless a newer render got there first
+                    if (renderer.isRendered() && cache.setImage(renderer)) {
+                        periodicity = renderer.getPeriodicity();
+                        arbitraryPrecision = renderer.getArbitraryPrecision();
+                        verification = renderer.getVerification();
+                        pixelCounts = renderer.getPixelCounts();
                     }
                     repaint();
                 }
@@ -121,8 +234,8 @@ public class FractalPanel extends JPanel {
             worker.execute();
         }
         
-        // Draw the fractal
-        g2.drawImage(cache.getImage(), 0, 0, null);
+        // Draw the fractal, or the last one stretched over the new view until it is rendered
+        cache.drawImage(g2);
         
         Color c = scheme.getGridlineColour();
         g2.setColor(new Color(c.getRed(), c.getGreen(), c.getBlue(), 80));
@@ -151,10 +264,24 @@ public class FractalPanel extends JPanel {
      */
     public class RenderCache {
         
-        private int hashCode;
+        // The panel's request when last checked, to tell whether it has changed since
+        private RenderRequest checked;
         private BufferedImage image;
+        private long generation = -1;
         private boolean invalid = false;
         
+        // Escape times behind the image, so it can be recoloured without
+        // recalculating, and the request they were rendered for - which also
+        // tells a pan which of them are still on screen
+        private double[] escapes;
+        private RenderRequest request;
+        private Precision method;
+        
+        // Where each orbit was left and the iteration limit it reached, if
+        // kept, so that raising the limit only carries on the unfinished ones
+        private double[] orbits;
+        private int iterations;
+        
         /**
          * Mark the cache as dirty to force a re-render
          */
@@ -167,10 +294,41 @@ public class FractalPanel extends JPanel {
          * @return True if cache needs updating
          */
         public synchronized boolean isDirty() {
-            int oldHash = hashCode;
-            hashCode = FractalPanel.this.hashCode();
+            RenderRequest current = FractalPanel.this.request;
+            boolean changed = checked == null || !checked.getDigest().equals(current.getDigest());
+            checked = current;
             
-            return invalid || oldHash != hashCode;
+            return invalid || changed;
+        }
+        
+        /**
+         * Determine whether the cached escape times still match the panel, so
+         * that only the colouring needs updating
+         * @return True if the cache can be brought up to date by recolouring
+         */
+        public synchronized boolean canRecolour() {
+            return !invalid && escapes != null
+                    && request.getEscapeDigest().equals(FractalPanel.this.request.getEscapeDigest());
+        }
+        
+        /**
+         * Replace the image by colouring the cached escape times again, split
+         * across the render threads, or on this thread if they are busy
+         * @param scheme
+         * @param paletteOffset
+         */
+        public synchronized void recolour(FractalColourScheme scheme, double paletteOffset) {
+            // A new image, rather than painting over one which may still be on screen
+            BufferedImage recoloured = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+            int[] pixels = ((DataBufferInt) recoloured.getRaster().getDataBuffer()).getData();
+            ForkJoinPool pool = RenderExecutor.getShared().getTilePool();
+            if (pool.getActiveThreadCount() > 0 || pool.hasQueuedSubmissions()) {
+                // Colouring is cheap next to a render, so don't wait behind one
+                scheme.mapAll(escapes, paletteOffset, pixels, 0, pixels.length);
+            } else {
+                pool.invoke(new Recolour(scheme, paletteOffset, pixels, 0, recoloured.getHeight()));
+            }
+            this.image = recoloured;
         }
         
         /**
@@ -182,14 +340,296 @@ public class FractalPanel extends JPanel {
         }
         
         /**
-         * Set the image in the cache
-         * @param image
+         * Draw the image where its view lies in the panel's current view, so
+         * that after a pan or zoom it stands in, cropped and scaled, until
+         * the new view is rendered
+         * @param g2
+         */
+        public synchronized void drawImage(Graphics2D g2) {
+            if (image == null) {
+                return;
+            }
+            int width = getWidth();
+            int height = getHeight();
+            BigDecimal reRange = exactRmax.subtract(exactRmin);
+            BigDecimal imRange = exactImax.subtract(exactImin);
+            BigDecimal renderRmin = request.getRealMin();
+            BigDecimal renderRmax = request.getRealMax();
+            BigDecimal renderImin = request.getImaginaryMin();
+            BigDecimal renderImax = request.getImaginaryMax();
+            if (reRange.signum() == 0 || imRange.signum() == 0
+                    || image.getWidth() == width && image.getHeight() == height
+                    && exactRmin.compareTo(renderRmin) == 0 && exactRmax.compareTo(renderRmax) == 0
+                    && exactImin.compareTo(renderImin) == 0 && exactImax.compareTo(renderImax) == 0) {
+                g2.drawImage(image, 0, 0, null);
+                return;
+            }
+            
+            // Where the image's corners lie in the panel, in pixels
+            double x0 = renderRmin.subtract(exactRmin).divide(reRange, MathContext.DECIMAL64).doubleValue() * width;
+            double x1 = renderRmax.subtract(exactRmin).divide(reRange, MathContext.DECIMAL64).doubleValue() * width;
+            double y0 = renderImin.subtract(exactImin).divide(imRange, MathContext.DECIMAL64).doubleValue() * height;
+            double y1 = renderImax.subtract(exactImin).divide(imRange, MathContext.DECIMAL64).doubleValue() * height;
+            AffineTransform transform = new AffineTransform(
+                    (x1 - x0) / image.getWidth(), 0, 0, (y1 - y0) / image.getHeight(), x0, y0);
+                    
+            g2.setColor(getBackground());
+            g2.fillRect(0, 0, width, height);
+            g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g2.drawImage(image, transform, null);
+        }
+        
+        /**
+         * Set the image in the cache from a completed render, unless it is
+         * older than the image already there
+         * @param render
+         * @return True if the image was stored
          */
-        public synchronized void setImage(BufferedImage image) {
-            this.image = image;
+        public synchronized boolean setImage(Renderer render) {
+            if (render.generation < this.generation) {
+                return false;
+            }
+            this.image = render.image;
+            this.escapes = render.escapes;
+            this.request = render.request;
+            this.method = render.method;
+            this.orbits = render.orbits;
+            this.iterations = render.iterations;
+            this.generation = render.generation;
             this.invalid = false;
+            return true;
+        }
+        
+        /**
+         * Find how the panel's view has been panned or zoomed from the cached
+         * one, so that a new render can reuse the escape times which land on
+         * its pixel grid
+         * @param request Request of the new render
+         * @param method Numeric method of the new render
+         * @return The translation, or null if the view has changed in any other way
+         */
+        private synchronized Translation getTranslation(RenderRequest request, Precision method) {
+            int width = request.getWidth();
+            int height = request.getHeight();
+            if (invalid || escapes == null || method != this.method
+                    || !request.getKernelDigest().equals(this.request.getKernelDigest())
+                    || image.getWidth() != width || image.getHeight() != height) {
+                return null;
+            }
+            GridAxis columns = gridAxis(request.getRealMin(), request.getRealMax(),
+                    this.request.getRealMin(), this.request.getRealMax(), width);
+            GridAxis rows = gridAxis(request.getImaginaryMin(), request.getImaginaryMax(),
+                    this.request.getImaginaryMin(), this.request.getImaginaryMax(), height);
+            if (columns == null || rows == null) {
+                return null;
+            }
+            // Arbitrary precision is sized to the spacing, so coarser samples may not be precise enough
+            if (method == Precision.ARBITRARY && !(columns.isUnscaled() && rows.isUnscaled())) {
+                return null;
+            }
+            // The kernels match, so the orbits were left at the same limit
+            return new Translation(escapes, orbits, columns, rows);
+        }
+        
+        /**
+         * Find how one axis of the new pixel grid lies on the cached one
+         * @param min New lower bound
+         * @param max New upper bound
+         * @param oldMin Cached lower bound
+         * @param oldMax Cached upper bound
+         * @param pixels Number of pixels along the axis
+         * @return The mapping, or null if the grids don't line up or don't overlap
+         */
+        private GridAxis gridAxis(BigDecimal min, BigDecimal max, BigDecimal oldMin, BigDecimal oldMax, int pixels) {
+            BigDecimal range = max.subtract(min);
+            BigDecimal oldRange = oldMax.subtract(oldMin);
+            if (range.signum() == 0 || oldRange.signum() != range.signum()) {
+                return null;
+            }
+            
+            // The old spacing must be a whole number of new pixels, or the other way round
+            double ratio = oldRange.divide(range, MathContext.DECIMAL64).doubleValue();
+            int p = 1;
+            int q = 1;
+            if (ratio >= 1) {
+                p = (int) Math.min(Math.round(ratio), Integer.MAX_VALUE);
+            } else {
+                q = (int) Math.min(Math.round(1 / ratio), Integer.MAX_VALUE);
+            }
+            if (p > ZOOM_REUSE_LIMIT || q > ZOOM_REUSE_LIMIT
+                    || Math.abs(ratio * q - p) * pixels > PAN_TOLERANCE * q) {
+                return null;
+            }
+            
+            // Offset of the new grid in old pixels, times p. Pixels are
+            // sampled from the centre, so a zoom moves the half way pixel too.
+            BigDecimal centreShift = min.add(max).subtract(oldMin).subtract(oldMax).multiply(BigDecimal.valueOf(0.5));
+            int shift = pixelShift(centreShift.multiply(BigDecimal.valueOf(p)), oldRange, pixels, Math.max(p, q));
+            if (shift == Integer.MAX_VALUE) {
+                return null;
+            }
+            long offset = shift + (long) (p - q) * (pixels / 2);
+            if (offset + (long) q * (pixels - 1) < 0 || offset >= (long) p * pixels) {
+                // No longer on screen at all
+                return null;
+            }
+            return new GridAxis(p, q, offset, pixels);
+        }
+        
+        /**
+         * Find whether the only change since the cached render is a higher
+         * iteration limit, so that a new render can carry on its orbits
+         * @param request Request of the new render
+         * @param iterations Iteration limit of the new render
+         * @return The orbits to carry on, or null if the view has changed in any other way
+         */
+        private synchronized Continuation getContinuation(RenderRequest request, int iterations) {
+            if (invalid || orbits == null || iterations <= this.iterations
+                    || !request.getOrbitDigest().equals(this.request.getOrbitDigest())
+                    || image.getWidth() != request.getWidth() || image.getHeight() != request.getHeight()) {
+                return null;
+            }
+            if (request.getRealMin().compareTo(this.request.getRealMin()) != 0
+                    || request.getRealMax().compareTo(this.request.getRealMax()) != 0
+                    || request.getImaginaryMin().compareTo(this.request.getImaginaryMin()) != 0
+                    || request.getImaginaryMax().compareTo(this.request.getImaginaryMax()) != 0) {
+                return null;
+            }
+            return new Continuation(escapes, orbits, this.iterations);
+        }
+        
+        /**
+         * @return Number of whole pixels the offset covers, or Integer.MAX_VALUE
+         *         if it isn't close enough to a whole number or is more than
+         *         scale times the number of pixels
+         */
+        private int pixelShift(BigDecimal offset, BigDecimal range, int pixels, int scale) {
+            BigDecimal shift = offset.multiply(BigDecimal.valueOf(pixels)).divide(range, MathContext.DECIMAL64);
+            BigDecimal whole = shift.setScale(0, RoundingMode.HALF_EVEN);
+            if (whole.abs().compareTo(BigDecimal.valueOf((long) pixels * scale)) >= 0
+                    || shift.subtract(whole).abs().doubleValue() > PAN_TOLERANCE * scale) {
+                return Integer.MAX_VALUE;
+            }
+            return whole.intValue();
+        }
+        
+        /**
+         * Colours a range of rows of the cached escape times, splitting the
+         * range in half until each task has at most a tile's height of rows
+         */
+        private class Recolour extends RecursiveAction {
+            
+            private static final long serialVersionUID = 1L;
+            
+            private FractalColourScheme scheme;
+            private double paletteOffset;
+            private int[] pixels;
+            private int from, to;
+            
+            public Recolour(FractalColourScheme scheme, double paletteOffset, int[] pixels, int from, int to) {
+                this.scheme = scheme;
+                this.paletteOffset = paletteOffset;
+                this.pixels = pixels;
+                this.from = from;
+                this.to = to;
+            }
+            
+            @Override
+            protected void compute() {
+                if (to - from > TILE_SIZE) {
+                    int mid = (from + to) / 2;
+                    invokeAll(new Recolour(scheme, paletteOffset, pixels, from, mid),
+                            new Recolour(scheme, paletteOffset, pixels, mid, to));
+                } else {
+                    int width = image.getWidth();
+                    scheme.mapAll(escapes, paletteOffset, pixels, from * width, (to - from) * width);
+                }
+            }
+        }
+        
+    }
+    
+    /**
+     * Escape times and orbits of an earlier render, and how the new view's
+     * pixel grid lies on its grid across and down
+     */
+    private static class Translation {
+        
+        private final double[] escapes;
+        // Where each orbit was left, as (re, im) pairs, or null if not kept
+        private final double[] orbits;
+        private final GridAxis columns, rows;
+        
+        public Translation(double[] escapes, double[] orbits, GridAxis columns, GridAxis rows) {
+            this.escapes = escapes;
+            this.orbits = orbits;
+            this.columns = columns;
+            this.rows = rows;
+        }
+        
+        /**
+         * @return True if every pixel of the new view lands on the old grid
+         */
+        public boolean isDense() {
+            return columns.p == 1 && rows.p == 1;
         }
+    }
+    
+    /**
+     * How one axis of a new pixel grid lies on an old one, whose spacing is
+     * p / q times the new spacing - pixel x of the new view is pixel
+     * (q * x + offset) / p of the old one, where that divides exactly. A pan
+     * has p = q = 1, so every pixel still on screen moves by the offset.
+     */
+    private static class GridAxis {
+        
+        private final int p, q;
+        private final long offset;
+        private final int pixels;
+        
+        public GridAxis(int p, int q, long offset, int pixels) {
+            this.p = p;
+            this.q = q;
+            this.offset = offset;
+            this.pixels = pixels;
+        }
+        
+        /**
+         * @return The old pixel under new pixel x, or -1 if x falls between
+         *         old pixels or outside the old view
+         */
+        public int map(int x) {
+            long old = (long) q * x + offset;
+            if (old < 0 || old % p != 0 || old / p >= pixels) {
+                return -1;
+            }
+            return (int) (old / p);
+        }
+        
+        /**
+         * @return True if the spacing hasn't changed
+         */
+        public boolean isUnscaled() {
+            return p == 1 && q == 1;
+        }
+    }
+    
+    /**
+     * Escape times and orbits of an earlier render of the same view with a
+     * lower iteration limit
+     */
+    private static class Continuation {
         
+        private final double[] escapes;
+        // Where each orbit was left, as (re, im) pairs
+        private final double[] orbits;
+        private final int iterations;
+        
+        public Continuation(double[] escapes, double[] orbits, int iterations) {
+            this.escapes = escapes;
+            this.orbits = orbits;
+            this.iterations = iterations;
+        }
     }
     
     /**
@@ -197,23 +637,79 @@ public class FractalPanel extends JPanel {
      */
     public class Renderer implements Runnable {
         
-        // Thread pool
-        private ExecutorService pool;
+        // Work-stealing thread pool, and whether it belongs to this renderer alone
+        private ForkJoinPool pool;
+        private boolean ownPool;
+        private volatile boolean cancelled = false;
+        
+        // Renders are numbered as they are created, so a newer render
+        // supersedes this one and a stale image never replaces a newer one
+        private final long generation;
         // Timeout in milliseconds
         private long timeout = 1000000;
         
-        // Tile storage
-        private WritableRaster[][] tiles;
-        private ColorModel model;
+        // Periodicity checking and counters for this render
+        private Periodicity periodicity;
+        
+        // Algorithm the render was created with. It can be changed in place,
+        // which cancels the render, so it is checked again once finished.
+        private final FractalAlgorithm algorithm;
+        
+        // Deep zoom state, if rendering by perturbation
+        private Precision method;
+        private Perturbation perturbation;
+        private List<Integer> glitches = Collections.synchronizedList(new ArrayList<Integer>());
+        private volatile boolean glitchesFixed = false;
+        
+        // Precision and counters, if rendering at arbitrary precision
+        private ArbitraryPrecision arbitrary;
+        
+        // Float against double comparison, if verifying the float kernels
+        private FloatVerification verification;
+        
+        // Colouring as it was when the render was created, so a change part
+        // way through can't leave the image in two schemes
+        private FractalColourScheme scheme;
+        private double paletteOffset;
+        
+        // Which pixels to calculate, and how many were
+        private RenderStrategy strategy;
+        private double guessTolerance;
+        private PixelCounts counts = new PixelCounts();
+        
+        // The output image, and its pixels in row-major order for tiles to write directly
+        private BufferedImage image;
+        private int[] pixels;
+        // Escape time of each pixel, in the same order, and the request they belong to
+        private double[] escapes;
+        private final RenderRequest request;
+        
+        // Escape times to copy rather than calculate, if the view was panned
+        private Translation previous;
+        
+        // Where the render lies on the tile cache's grids, if caching
+        private TileCache tiles;
+        private TileCache.Placement placement;
+        
+        // Where each orbit was left, if kept, and the orbits to carry on if
+        // only the iteration limit has gone up
+        private double[] orbits;
+        private final int iterations;
+        private Continuation continuation;
         
         // Metrics
         private int width, height;
         private int tilesX, tilesY;
-        private int tileW, tileH;
         
-        // Progress actually just counts the number of tiles rendered, not
-        // percentage
-        private Integer progress = 0;
+        // Number of tiles finished, to tell whether the render is complete -
+        // progress within tiles comes from the pixel counts
+        private AtomicInteger tilesDone = new AtomicInteger();
+        private long start;
+        
+        // Iterations each tile is expected to take, and the total for the
+        // tiles not yet finished, for the time remaining
+        private long[] estimates;
+        private AtomicLong estimateLeft = new AtomicLong();
         
         /**
          * Create a new fractal image renderer
@@ -221,199 +717,1324 @@ public class FractalPanel extends JPanel {
          * @param height
          */
         public Renderer(int width, int height) {
-            // Create a renderer based on the number of cores/threads available
-            this(width, height, Runtime.getRuntime().availableProcessors());
+            // Render on the threads shared by the whole application
+            this(width, height, RenderExecutor.getShared().getTilePool());
         }
         
         /**
-         * Create a new fractal renderer with a specific number of threads in the pool
+         * Create a new fractal renderer with its own pool of a specific
+         * number of threads, shut down once the render is done
          * @param width
          * @param height
          * @param numThreads
          */
         public Renderer(int width, int height, int numThreads) {
-            pool = Executors.newFixedThreadPool(numThreads);
+            this(width, height, new ForkJoinPool(numThreads));
+            this.ownPool = true;
+        }
+        
+        /**
+         * Create a new fractal renderer on the given pool
+         * @param width
+         * @param height
+         * @param pool
+         */
+        private Renderer(int width, int height, ForkJoinPool pool) {
+            this.generation = generations.incrementAndGet();
+            // The panel's request, unless this render is a different size.
+            // Every coordinate comes from it, so the view can't change under the render.
+            RenderRequest current = currentRequest();
+            this.request = (current.getWidth() == width && current.getHeight() == height)
+                    ? current : createRequest(width, height);
+            this.algorithm = FractalPanel.this.algorithm;
+            this.iterations = algorithm.getIterations();
+            this.scheme = FractalPanel.this.scheme;
+            this.paletteOffset = FractalPanel.this.paletteOffset;
+            this.strategy = request.getStrategy();
+            this.guessTolerance = request.getGuessTolerance();
+            this.pool = pool;
             
             this.width = width;
             this.height = height;
             
-            // Calculate number of tiles in X and Y
-            this.tilesX = (int) Math.floor(Math.sqrt(numThreads));
-            this.tilesY = numThreads / tilesX;
+            this.method = request.getMethod();
+            if (method == Precision.ARBITRARY) {
+                // Size the precision to the current viewport
+                this.arbitrary = ArbitraryPrecision.forSpacing(request.getSpacingRe().abs().min(request.getSpacingIm().abs()));
+            }
+            if (floatVerification && (method == Precision.FLOAT || method == Precision.DOUBLE)) {
+                this.verification = new FloatVerification();
+            }
+            
+            if (periodicityCheck) {
+                // Tie the tolerance to the smallest pixel dimension
+                double spacing = Math.min(
+                        request.getRealMax().subtract(request.getRealMin()).abs().doubleValue() / width,
+                        request.getImaginaryMax().subtract(request.getImaginaryMin()).abs().doubleValue() / height);
+                this.periodicity = new Periodicity(spacing * PERIODICITY_TOLERANCE);
+            } else {
+                // Still wanted to count iterations
+                this.periodicity = new Periodicity();
+            }
+            
+            // Calculate number of tiles in X and Y, rounding up so the
+            // right and bottom tiles take whatever is left over
+            this.tilesX = (width + TILE_SIZE - 1) / TILE_SIZE;
+            this.tilesY = (height + TILE_SIZE - 1) / TILE_SIZE;
             
-            this.tileW = width / tilesX;
-            this.tileH = height / (numThreads / tilesY);
+            this.image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            this.pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+            this.escapes = new double[width * height];
+            
+            // Orbits are only kept by the double precision row kernels
+            boolean record = keepOrbits && method == Precision.DOUBLE && strategy == RenderStrategy.FULL
+                    && verification == null && algorithm.canContinueOrbits();
+            if (record) {
+                this.continuation = cache.getContinuation(request, iterations);
+            }
+            if (continuation == null && verification == null) {
+                this.previous = cache.getTranslation(request, method);
+            }
+            if (record) {
+                this.orbits = new double[2 * width * height];
+            }
             
-            // Initialise tiles
-            this.tiles = new WritableRaster[tilesX][tilesY];
-            this.model = new DirectColorModel(24, 0xFF0000, 0x00FF00, 0x0000FF);
-            for (int i = 0; i < tilesX; i++) {
-                for (int j = 0; j < tilesY; j++) {
-                    tiles[i][j] = model.createCompatibleWritableRaster(tileW, tileH);
+            // Verification needs every pixel calculated both ways
+            this.tiles = (verification == null) ? tileCache : null;
+            if (tiles != null && width > 0 && height > 0
+                    && request.getRealMax().compareTo(request.getRealMin()) != 0
+                    && request.getImaginaryMax().compareTo(request.getImaginaryMin()) != 0) {
+                // Filled pixels are only as good as the strategy which filled
+                // them, so each strategy keeps its own tiles
+                String kernel = request.getAlgorithmParameters() + " " + method + " " + strategy;
+                if (strategy == RenderStrategy.SOLID_GUESSING) {
+                    kernel += " " + guessTolerance;
                 }
+                if (!periodicity.isChecking()) {
+                    // Periodicity checking can call a point near the boundary interior
+                    kernel += " aperiodic";
+                }
+                BigDecimal re = request.getRealExact(0);
+                BigDecimal im = request.getImaginaryExact(0);
+                this.placement = new TileCache.Placement(new TileCache.Level(kernel, re, im, request.getSpacingRe(), request.getSpacingIm()), re, im);
             }
         }
         
         @Override
         public void run() {
-            progress = 0;
-            for (int i = 0; i < tilesX; i++) {
-                for (int j = 0; j < tilesY; j++) {
-                    pool.execute(new RenderThread(tiles[i][j],
-                            i * tileW,      // This is the horizontal position of the tile
-                            j * tileH));    // and this is the vertical position
-                }
+            tilesDone.set(0);
+            estimateTiles();
+            start = System.nanoTime();
+            if (method == Precision.PERTURBATION) {
+                // Iterate the first reference orbit at the centre of the view
+                perturbation = new Perturbation((MandelbrotAlgorithm) algorithm,
+                        request.getCentre(), request.getSpacingRe(), request.getSpacingIm(), width, height);
             }
-            pool.shutdown();
             
+            ForkJoinTask<Void> render = pool.submit(new TileRange(0, tilesX * tilesY));
             try {
-                pool.awaitTermination(timeout, TimeUnit.MILLISECONDS);
+                render.get(timeout, TimeUnit.MILLISECONDS);
+                if (perturbation != null && !isCancelled()) {
+                    fixGlitches();
+                }
+                if (arbitrary != null) {
+                    arbitrary.finish();
+                }
             } catch (InterruptedException ex) {
-                pool.shutdownNow();
-                return;
+                cancel();
+            } catch (TimeoutException ex) {
+                cancel();
+            } catch (ExecutionException ex) {
+                System.err.println("Render failed: " + ex.getCause());
+                ex.printStackTrace();
+            }
+            if (!algorithm.getParameters().equals(request.getAlgorithmParameters())) {
+                // Changed part way through, so rows may have been calculated differently
+                cancel();
+            }
+            // The placement and every coordinate come from this render's request
+            if (placement != null && isRendered() && !isCancelled()) {
+                tiles.store(placement, escapes, width, height, request.getKernelDigest().toString());
+            }
+            if (ownPool) {
+                pool.shutdown();
             }
         }
         
-        private class RenderThread implements Runnable {
+        /**
+         * Stop this render as soon as possible. The tile threads are shared,
+         * so this is flagged for them to check rather than interrupting them.
+         */
+        public void cancel() {
+            cancelled = true;
+        }
+        
+        /**
+         * @return True if this render has been cancelled, or superseded by a
+         *         newer render of the same panel
+         */
+        public boolean isCancelled() {
+            return cancelled || generation != generations.get();
+        }
+        
+        /**
+         * @return Generation of this render - later renders of the same panel have higher generations
+         */
+        public long getGeneration() {
+            return generation;
+        }
+        
+        /**
+         * Renders a range of tiles, numbered across then down, splitting the
+         * range in half until each task has a single tile. Idle threads
+         * steal the other halves, so the pool stays busy however uneven the
+         * cost of each tile is.
+         */
+        private class TileRange extends RecursiveAction {
             
-            private WritableRaster tile;
-            private int rmin, imin, rmax, imax;
+            private static final long serialVersionUID = 1L;
             
-            public RenderThread(WritableRaster tile, int x, int y) {
-                this.tile = tile;
-                this.rmin = x;
-                this.imin = y;
-                this.rmax = x + tile.getWidth();
-                this.imax = y + tile.getHeight();
+            private int from, to;
+            
+            public TileRange(int from, int to) {
+                this.from = from;
+                this.to = to;
             }
             
             @Override
-            public void run() {
-                int rgb;
-                // Loop across each pixel
-                for (int x = rmin; x < rmax; x++) {
-                    for (int y = imin; y < imax; y++) {
-                        // Draw the pixel with calculated colour
-                        rgb = getPixelColour(x, y).getRGB();
-                        tile.setPixel(x - rmin, y - imin,
-                                new int[] {
-                                    // Bit-shifting and modulus to extract r,g,b
-                                    rgb >> 16,
-                                    (rgb >> 8) % 256,
-                                    rgb % 256
-                                });
+            protected void compute() {
+                if (to - from > 1) {
+                    int mid = (from + to) / 2;
+                    invokeAll(new TileRange(from, mid), new TileRange(mid, to));
+                } else if (to > from && !isCancelled()) {
+                    int i = from % tilesX;
+                    int j = from / tilesX;
+                    new RenderThread(i * TILE_SIZE, j * TILE_SIZE,
+                            Math.min(TILE_SIZE, width - i * TILE_SIZE),
+                            Math.min(TILE_SIZE, height - j * TILE_SIZE)).run();
+                }
+            }
+        }
+        
+        /**
+         * Sample the iterations each tile will take. A few points of each
+         * tile are iterated in double precision, which takes much the same
+         * iterations whichever method renders them.
+         */
+        private void estimateTiles() {
+            estimates = new long[tilesX * tilesY];
+            // Kept apart from the render's own iteration count
+            Periodicity sample = new Periodicity(periodicity.getTolerance());
+            long total = 0;
+            for (int tile = 0; tile < estimates.length && !isCancelled(); tile++) {
+                int x0 = (tile % tilesX) * TILE_SIZE;
+                int y0 = (tile / tilesX) * TILE_SIZE;
+                int w = Math.min(TILE_SIZE, width - x0);
+                int h = Math.min(TILE_SIZE, height - y0);
+                long sampled = 0;
+                for (int j = 0; j < TILE_SAMPLES; j++) {
+                    for (int i = 0; i < TILE_SAMPLES; i++) {
+                        sampled += sampleIterations(x0 + (2 * i + 1) * w / (2 * TILE_SAMPLES),
+                                y0 + (2 * j + 1) * h / (2 * TILE_SAMPLES), sample);
                     }
                 }
-                synchronized (progress) {
-                    progress++;
+                estimates[tile] = sampled * w * h / (TILE_SAMPLES * TILE_SAMPLES);
+                if (verification != null) {
+                    // Every pixel is calculated both ways
+                    estimates[tile] *= 2;
                 }
+                total += estimates[tile];
             }
+            estimateLeft.set(total);
         }
         
         /**
-         * @return The rendered image
+         * @return Iterations the given pixel is expected to take, which is
+         *         none if it will be copied from the previous render
          */
-        public BufferedImage getRender() {
-            BufferedImage output = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
-            Graphics2D g2 = output.createGraphics();
-            BufferedImage temp;
-            for (int i = 0; i < tilesX; i++) {
-                for (int j = 0; j < tilesY; j++) {
-                    temp = new BufferedImage(model, tiles[i][j], model.isAlphaPremultiplied(), null);
-                    g2.drawImage(temp, i * tileW, j * tileH, tileW, tileH, null);
+        private long sampleIterations(int x, int y, Periodicity sample) {
+            if (continuation != null) {
+                // Only the orbits which reached the old limit are carried on
+                return continuation.escapes[y * width + x] == continuation.iterations
+                        ? iterations - continuation.iterations : 0;
+            }
+            int row = previous == null ? -1 : previous.rows.map(y);
+            int column = row < 0 ? -1 : previous.columns.map(x);
+            if (column >= 0 && !Double.isNaN(previous.escapes[row * width + column])) {
+                return 0;
+            }
+            long before = sample.getIterations();
+            algorithm.escapeTimeRow(new double[] { request.getReal(x) }, request.getImaginary(y), new double[1], sample);
+            return sample.getIterations() - before;
+        }
+        
+        /**
+         * Recalculate glitched perturbation pixels against new reference
+         * orbits, giving up as soon as the render is cancelled
+         * @throws InterruptedException
+         */
+        private void fixGlitches() throws InterruptedException {
+            for (int pass = 1; pass < MAX_REFERENCES && !glitches.isEmpty(); pass++) {
+                // Each reference orbit is iterated at full precision, so check before starting one
+                if (isCancelled()) {
+                    return;
                 }
+                // Take the new reference from within the glitched pixels
+                final List<Integer> pending = glitches;
+                int reference = pending.get(pending.size() / 2);
+                perturbation.setReference(reference % width, reference / width);
+                glitches = Collections.synchronizedList(new ArrayList<Integer>());
+                renderAll(pending, null);
             }
-            // Clean up all the temporary stuff
-            temp = null;
-            System.gc();
             
-            return output;
+            // Out of references - doubles can't tell these pixels apart at
+            // this depth, so fall back to arbitrary precision for any left over
+            if (!glitches.isEmpty()) {
+                List<Integer> pending = glitches;
+                glitches = Collections.synchronizedList(new ArrayList<Integer>());
+                renderAll(pending, ArbitraryPrecision.forSpacing(request.getSpacingRe().abs().min(request.getSpacingIm().abs())));
+            }
+            glitchesFixed = !isCancelled();
         }
         
         /**
-         * @return The percentage progress of the render job
+         * Split the given pixels between the pool, and render them by
+         * perturbation or, if given a precision, at arbitrary precision
+         * @param pending Indices of the pixels, in row-major order
+         * @param exact Precision to render at, or null to use perturbation
+         * @throws InterruptedException
          */
-        public int getProgress() {
-            int p;
-            synchronized (progress) {
-                p = this.progress;
+        private void renderAll(List<Integer> pending, final ArbitraryPrecision exact) throws InterruptedException {
+            List<Callable<Object>> tasks = new ArrayList<Callable<Object>>();
+            int chunk = pending.size() / (tilesX * tilesY) + 1;
+            for (int start = 0; start < pending.size(); start += chunk) {
+                final List<Integer> part = pending.subList(start, Math.min(pending.size(), start + chunk));
+                tasks.add(Executors.callable(new Runnable() {
+                    
+                    @Override
+                    public void run() {
+                        for (int index : part) {
+                            if (isCancelled()) {
+                                return;
+                            }
+                            if (exact == null) {
+                                renderPixel(index % width, index / width);
+                            } else {
+                                renderExact(index % width, index / width, exact);
+                            }
+                        }
+                    }
+                }));
             }
-            return (100 * p) / (tilesX * tilesY);
+            pool.invokeAll(tasks, timeout, TimeUnit.MILLISECONDS);
         }
         
         /**
-         * @return True if render is complete
+         * Render a single pixel by perturbation, deferring it if glitched
          */
-        public boolean isRendered() {
-            return progress == (tilesX * tilesY);
+        private void renderPixel(int x, int y) {
+            storePixel(x, y, perturbation.escapeTime(x, y));
         }
         
-    }
-    
-    /**
-     * Calculates the complex Cartesian coordinates for the given pixel
-     * 
-     * @param x X coordinate relative to top left
-     * @param y Y coordinate relative to top left
-     * @param width Width of the graph
-     * @param height Height of the graph
-     */
-    public Complex getCartesian(int x, int y) {
-        int width = this.getWidth();
-        int height = this.getHeight();
+        /**
+         * Render a single pixel at arbitrary precision
+         */
+        private void renderExact(int x, int y, ArbitraryPrecision exact) {
+            int bits = exact.getBits();
+            BigFixedComplex point = new BigFixedComplex(BigFixedComplex.toFixed(request.getRealExact(x), bits),
+                    BigFixedComplex.toFixed(request.getImaginaryExact(y), bits), bits);
+            setPixel(x, y, algorithm.escapeTime(point, exact));
+        }
+        
+        /**
+         * Colour a single pixel of the output image, or defer it if
+         * perturbation glitched
+         */
+        private void storePixel(int x, int y, double escape) {
+            if (Perturbation.isGlitch(escape)) {
+                glitches.add(y * width + x);
+            } else {
+                setPixel(x, y, escape);
+            }
+        }
+        
+        /**
+         * Keep the orbit of a pixel reused from the previous render. Pixels
+         * from the tile cache, or from a render which didn't keep its orbits,
+         * have none, so theirs are started again if carried on.
+         * @param i Index of the pixel
+         * @param from Index of the same point in the previous render, or -1 if not from it
+         */
+        private void reuseOrbit(int i, int from) {
+            boolean known = from >= 0 && previous.orbits != null;
+            orbits[2 * i] = known ? previous.orbits[2 * from] : Double.NaN;
+            orbits[2 * i + 1] = known ? previous.orbits[2 * from + 1] : Double.NaN;
+        }
+        
+        /**
+         * Colour a single pixel of the output image, keeping its escape time
+         */
+        private void setPixel(int x, int y, double escape) {
+            escapes[y * width + x] = escape;
+            pixels[y * width + x] = scheme.calculateRGB(escape, paletteOffset);
+        }
         
-        if (width == 0 || height == 0) {
-            throw new IllegalStateException("Fractal panel does not have valid dimensions. Width:" + width + " Height:" + height);
-        } else {
-            // Move the graph into the centre of the container
-            double calcX = x - width / 2;
-            double calcY = y - height / 2;
+        private class RenderThread implements Runnable {
             
-            // Scale the axes
-            calcX *= (rmax - rmin) / width;
-            calcY *= (imax - imin) / height;
+            private int rmin, imin, rmax, imax;
             
-            // Calculate zoom offsets
-            // Add the average of the x and y space
-            calcX += (rmin + rmax) / 2;
-            calcY += (imin + imax) / 2;
+            private RowEvaluator rows;
+            private TileLookup lookup = new TileLookup();
+            // Escape times for the whole tile a row at a time, when subdividing or guessing
+            private double[] values;
+            // Whether each pixel has been calculated or guessed, when guessing
+            private byte[] state;
+            private double[] pixel = new double[1];
             
-            return new Complex(calcX, calcY);
-        }
-    }
-    
-    /**
-     * Calculates the colour for the given pixel
-     * 
-     * @param x X coordinate relative to top left
-     * @param y Y coordinate relative to top left
-     * @param width Width of the graph
-     * @param height Height of the graph
-     */
-    public Color getPixelColour(int x, int y) {
-        // Get complex Cartesian coordinates
-        Complex coords = getCartesian(x, y);
-        
-        return scheme.calculateColour(algorithm.escapeTime(coords));
-    }
-    
-    /**
-     * Paints crosshairs at the given location
-     * If null, crosshairs are not drawn
-     */
-    public void paintCrosshairs(Point p) {
-        this.crosshairs = p;
-        this.repaint();
-    }
-    
-    /**
-     * Paints zoom rectangle
-     * If null, zoom rectangle is not drawn
-     */
-    public void paintZoom(Rectangle r) {
-        this.zoom = r;
-        this.repaint();
-    }
+            public RenderThread(int x, int y, int width, int height) {
+                this.rmin = x;
+                this.imin = y;
+                this.rmax = x + width;
+                this.imax = y + height;
+            }
+            
+            /**
+             * Count the tile as finished, and its iterations as no longer to come
+             */
+            private void finished() {
+                estimateLeft.addAndGet(-estimates[(imin / TILE_SIZE) * tilesX + rmin / TILE_SIZE]);
+                tilesDone.incrementAndGet();
+            }
+            
+            @Override
+            public void run() {
+                if (continuation != null) {
+                    continueOrbits();
+                    return;
+                }
+                if (copyPrevious()) {
+                    return;
+                }
+                rows = new RowEvaluator(rmin, rmax);
+                if (strategy == RenderStrategy.MARIANI_SILVER) {
+                    renderSubdivided();
+                    return;
+                } else if (strategy == RenderStrategy.SOLID_GUESSING) {
+                    renderGuessed();
+                    return;
+                }
+                
+                double[] escape = new double[rmax - rmin];
+                // Loop across each scanline
+                for (int y = imin; y < imax; y++) {
+                    // Give up as soon as cancelled
+                    if (isCancelled()) {
+                        return;
+                    }
+                    rows.escapeTimes(y, rmin, rmax, escape, lookup);
+                    if (isCancelled()) {
+                        return;
+                    }
+                    if (perturbation == null) {
+                        // No glitches to defer, so colour the row in one pass
+                        System.arraycopy(escape, 0, escapes, y * width + rmin, escape.length);
+                        scheme.mapAll(escapes, paletteOffset, pixels, y * width + rmin, escape.length);
+                    } else {
+                        for (int x = rmin; x < rmax; x++) {
+                            storePixel(x, y, escape[x - rmin]);
+                        }
+                    }
+                }
+                finished();
+            }
+            
+            /**
+             * Carry on the orbits of the tile's pixels which reached the
+             * previous render's iteration limit. The rest escaped before it,
+             * so keep their escape times, rescaled to the new limit.
+             */
+            private void continueOrbits() {
+                int from = continuation.iterations;
+                double scale = (double) from / iterations;
+                for (int y = imin; y < imax; y++) {
+                    if (isCancelled()) {
+                        return;
+                    }
+                    double im = request.getImaginary(y);
+                    int continued = 0;
+                    for (int x = rmin; x < rmax; x++) {
+                        int i = y * width + x;
+                        double escape = continuation.escapes[i];
+                        if (escape == from) {
+                            double re = request.getReal(x);
+                            int start = from;
+                            orbits[2 * i] = continuation.orbits[2 * i];
+                            orbits[2 * i + 1] = continuation.orbits[2 * i + 1];
+                            if (Double.isNaN(orbits[2 * i])) {
+                                // Reused without its orbit, so start again
+                                orbits[2 * i] = re;
+                                orbits[2 * i + 1] = im;
+                                start = 0;
+                            }
+                            escape = algorithm.continueOrbit(re, im, orbits, 2 * i, start, periodicity);
+                            continued++;
+                        } else {
+                            escape *= scale;
+                        }
+                        escapes[i] = escape;
+                    }
+                    scheme.mapAll(escapes, paletteOffset, pixels, y * width + rmin, rmax - rmin);
+                    counts.addComputed(continued);
+                    counts.addReused(rmax - rmin - continued);
+                }
+                finished();
+            }
+            
+            /**
+             * Copy and colour the whole tile from the previous render, if the
+             * view was panned or zoomed out and the tile was on screen before
+             * @return True if the tile was copied
+             */
+            private boolean copyPrevious() {
+                if (previous == null || !previous.isDense()
+                        || previous.columns.map(rmin) < 0 || previous.columns.map(rmax - 1) < 0
+                        || previous.rows.map(imin) < 0 || previous.rows.map(imax - 1) < 0) {
+                    return false;
+                }
+                int w = rmax - rmin;
+                for (int y = imin; y < imax; y++) {
+                    int i = y * width + rmin;
+                    int from = previous.rows.map(y) * width;
+                    if (previous.columns.isUnscaled()) {
+                        System.arraycopy(previous.escapes, from + previous.columns.map(rmin), escapes, i, w);
+                    } else {
+                        for (int x = rmin; x < rmax; x++) {
+                            escapes[y * width + x] = previous.escapes[from + previous.columns.map(x)];
+                        }
+                    }
+                    if (orbits != null) {
+                        for (int x = rmin; x < rmax; x++) {
+                            reuseOrbit(y * width + x, from + previous.columns.map(x));
+                        }
+                    }
+                    scheme.mapAll(escapes, paletteOffset, pixels, i, w);
+                }
+                counts.addReused(w * (imax - imin));
+                finished();
+                return true;
+            }
+            
+            /**
+             * Render the tile by Mariani-Silver subdivision, starting from
+             * the border of the whole tile
+             */
+            private void renderSubdivided() {
+                int w = rmax - rmin;
+                values = new double[w * (imax - imin)];
+                Subdivision root = new Subdivision(rmin, imin, rmax - 1, imax - 1);
+                root.computeRow(imin, rmin, rmax);
+                if (imax - 1 > imin) {
+                    root.computeRow(imax - 1, rmin, rmax);
+                }
+                root.computeColumn(rmin, imin + 1, imax - 1);
+                if (rmax - 1 > rmin) {
+                    root.computeColumn(rmax - 1, imin + 1, imax - 1);
+                }
+                root.invoke();
+                paintValues();
+            }
+            
+            /**
+             * Render the tile by solid guessing. The first pass calculates
+             * every GUESS_STEP'th pixel. Each later pass interpolates across
+             * the blocks whose corners agree to within the guess tolerance,
+             * and splits the rest into quarters, calculating their corners.
+             */
+            private void renderGuessed() {
+                int w = rmax - rmin;
+                int h = imax - imin;
+                values = new double[w * h];
+                state = new byte[w * h];
+                
+                // Block corners for the first pass, relative to the tile
+                List<int[]> blocks = new ArrayList<int[]>();
+                for (int y0 = 0; y0 == 0 || y0 < h - 1; y0 += GUESS_STEP) {
+                    for (int x0 = 0; x0 == 0 || x0 < w - 1; x0 += GUESS_STEP) {
+                        blocks.add(new int[] { x0, y0, Math.min(x0 + GUESS_STEP, w - 1), Math.min(y0 + GUESS_STEP, h - 1) });
+                    }
+                }
+                for (int[] block : blocks) {
+                    computeCorners(block[0], block[1], block[2], block[3]);
+                }
+                
+                while (!blocks.isEmpty()) {
+                    if (isCancelled()) {
+                        return;
+                    }
+                    List<int[]> next = new ArrayList<int[]>();
+                    for (int[] block : blocks) {
+                        refine(block[0], block[1], block[2], block[3], next);
+                    }
+                    blocks = next;
+                }
+                paintValues();
+            }
+            
+            /**
+             * Fill a block of the tile if its corners agree, otherwise split
+             * it into up to four smaller blocks for the next pass
+             */
+            private void refine(int x0, int y0, int x1, int y1, List<int[]> next) {
+                if (x1 - x0 <= 1 && y1 - y0 <= 1) {
+                    // Every pixel is a corner, so already calculated
+                    return;
+                }
+                
+                int w = rmax - rmin;
+                double v00 = values[y0 * w + x0];
+                double v10 = values[y0 * w + x1];
+                double v01 = values[y1 * w + x0];
+                double v11 = values[y1 * w + x1];
+                double min = Math.min(Math.min(v00, v10), Math.min(v01, v11));
+                double max = Math.max(Math.max(v00, v10), Math.max(v01, v11));
+                // Never true if any corner is glitched
+                if (max - min <= guessTolerance) {
+                    // Bilinear interpolation between the corners, which is
+                    // exact if they are all the same
+                    int filled = 0;
+                    for (int y = y0; y <= y1; y++) {
+                        double fy = y1 == y0 ? 0 : (double) (y - y0) / (y1 - y0);
+                        double left = v00 + (v01 - v00) * fy;
+                        double right = v10 + (v11 - v10) * fy;
+                        for (int x = x0; x <= x1; x++) {
+                            if (state[y * w + x] == UNKNOWN) {
+                                double fx = x1 == x0 ? 0 : (double) (x - x0) / (x1 - x0);
+                                values[y * w + x] = left + (right - left) * fx;
+                                state[y * w + x] = GUESSED;
+                                filled++;
+                            }
+                        }
+                    }
+                    counts.addFilled(filled);
+                    return;
+                }
+                
+                int xm = (x0 + x1) / 2;
+                int ym = (y0 + y1) / 2;
+                int[] xs = x1 - x0 > 1 ? new int[] { x0, xm, x1 } : new int[] { x0, x1 };
+                int[] ys = y1 - y0 > 1 ? new int[] { y0, ym, y1 } : new int[] { y0, y1 };
+                for (int j = 0; j + 1 < ys.length; j++) {
+                    for (int i = 0; i + 1 < xs.length; i++) {
+                        computeCorners(xs[i], ys[j], xs[i + 1], ys[j + 1]);
+                        next.add(new int[] { xs[i], ys[j], xs[i + 1], ys[j + 1] });
+                    }
+                }
+            }
+            
+            /**
+             * Calculate any corners of a block which have only been guessed
+             */
+            private void computeCorners(int x0, int y0, int x1, int y1) {
+                computeGuessed(x0, y0);
+                computeGuessed(x1, y0);
+                computeGuessed(x0, y1);
+                computeGuessed(x1, y1);
+            }
+            
+            private void computeGuessed(int x, int y) {
+                int i = y * (rmax - rmin) + x;
+                if (state[i] == COMPUTED) {
+                    return;
+                }
+                if (state[i] == GUESSED) {
+                    counts.addFilled(-1);
+                }
+                rows.escapeTimes(imin + y, rmin + x, rmin + x + 1, pixel, lookup);
+                values[i] = pixel[0];
+                state[i] = COMPUTED;
+            }
+            
+            /**
+             * Colour the whole tile from the calculated and filled escape times
+             */
+            private void paintValues() {
+                if (isCancelled()) {
+                    return;
+                }
+                int w = rmax - rmin;
+                for (int y = imin; y < imax; y++) {
+                    for (int x = rmin; x < rmax; x++) {
+                        storePixel(x, y, values[(y - imin) * w + (x - rmin)]);
+                    }
+                }
+                finished();
+            }
+            
+            /**
+             * Mariani-Silver subdivision of a rectangle whose border, from
+             * (x0, y0) to (x1, y1) inclusive, has already been calculated
+             */
+            private class Subdivision extends RecursiveAction {
+                
+                private static final long serialVersionUID = 1L;
+                
+                private int x0, y0, x1, y1;
+                // Subdivisions run on several threads at once, so each looks up its own tiles
+                private TileLookup lookup = new TileLookup();
+                
+                public Subdivision(int x0, int y0, int x1, int y1) {
+                    this.x0 = x0;
+                    this.y0 = y0;
+                    this.x1 = x1;
+                    this.y1 = y1;
+                }
+                
+                @Override
+                protected void compute() {
+                    int w = x1 - x0 - 1;
+                    int h = y1 - y0 - 1;
+                    if (w <= 0 || h <= 0 || isCancelled()) {
+                        return;
+                    }
+                    
+                    if (isBorderUniform()) {
+                        double value = values[index(x0, y0)];
+                        for (int y = y0 + 1; y < y1; y++) {
+                            Arrays.fill(values, index(x0 + 1, y), index(x1, y), value);
+                        }
+                        counts.addFilled(w * h);
+                    } else if (w < MIN_SUBDIVISION || h < MIN_SUBDIVISION) {
+                        // Too small to be worth splitting again
+                        for (int y = y0 + 1; y < y1; y++) {
+                            computeRow(y, x0 + 1, x1);
+                        }
+                    } else if (w >= h) {
+                        // Split down the middle column
+                        int mid = (x0 + x1) / 2;
+                        computeColumn(mid, y0 + 1, y1);
+                        invokeAll(new Subdivision(x0, y0, mid, y1),
+                                new Subdivision(mid, y0, x1, y1));
+                    } else {
+                        // Split along the middle row
+                        int mid = (y0 + y1) / 2;
+                        computeRow(mid, x0 + 1, x1);
+                        invokeAll(new Subdivision(x0, y0, x1, mid),
+                                new Subdivision(x0, mid, x1, y1));
+                    }
+                }
+                
+                /**
+                 * @return True if every border pixel has exactly the same escape
+                 *         time - never true if any are glitched
+                 */
+                private boolean isBorderUniform() {
+                    double value = values[index(x0, y0)];
+                    for (int x = x0; x <= x1; x++) {
+                        if (!(values[index(x, y0)] == value && values[index(x, y1)] == value)) {
+                            return false;
+                        }
+                    }
+                    for (int y = y0 + 1; y < y1; y++) {
+                        if (!(values[index(x0, y)] == value && values[index(x1, y)] == value)) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }
+                
+                /**
+                 * Calculate pixels on row y from column from up to but not including to
+                 */
+                private void computeRow(int y, int from, int to) {
+                    if (to <= from) {
+                        return;
+                    }
+                    double[] row = new double[to - from];
+                    rows.escapeTimes(y, from, to, row, lookup);
+                    System.arraycopy(row, 0, values, index(from, y), row.length);
+                }
+                
+                /**
+                 * Calculate pixels in column x from row from up to but not including to
+                 */
+                private void computeColumn(int x, int from, int to) {
+                    if (to <= from) {
+                        return;
+                    }
+                    double[] column = new double[to - from];
+                    rows.escapeTimesColumn(x, from, to, column, lookup);
+                    for (int y = from; y < to; y++) {
+                        values[index(x, y)] = column[y - from];
+                    }
+                }
+                
+                private int index(int x, int y) {
+                    return (y - imin) * (rmax - rmin) + (x - rmin);
+                }
+            }
+        }
+        
+        /**
+         * The tile cache tile last looked up by one thread of work, so that
+         * a run of pixels in the same tile only looks it up once. Each task
+         * has its own, as tasks sharing a RowEvaluator run at the same time.
+         */
+        private class TileLookup {
+            
+            // Relative to the render's first tile
+            private int column = -1, row = -1;
+            private double[] tile;
+            
+            /**
+             * @return The escape time of pixel (x, y) from the tile cache, or
+             *         NaN if it isn't there
+             */
+            public double escape(int x, int y) {
+                int gx = placement.getX() + x;
+                int gy = placement.getY() + y;
+                int column = gx / TileCache.TILE_SIZE;
+                int row = gy / TileCache.TILE_SIZE;
+                if (column != this.column || row != this.row) {
+                    tile = tiles.get(placement.getLevel(),
+                            placement.getColumn().add(BigInteger.valueOf(column)),
+                            placement.getRow().add(BigInteger.valueOf(row)));
+                    this.column = column;
+                    this.row = row;
+                }
+                if (tile == null) {
+                    return Double.NaN;
+                }
+                return tile[(gy % TileCache.TILE_SIZE) * TileCache.TILE_SIZE + gx % TileCache.TILE_SIZE];
+            }
+        }
+        
+        /**
+         * Calculates escape times for runs of pixels along a row with the
+         * render's numeric method. Coordinates of the columns it covers are
+         * worked out once up front, after which it is safe to share between
+         * threads.
+         */
+        private class RowEvaluator {
+            
+            private int rmin, rmax;
+            
+            // Real coordinates of each column, for whichever method is in use
+            private double[] re;
+            private float[] reFloat;
+            private DoubleDouble[] reDD;
+            private long[] reFixedHi, reFixedLo;
+            private BigInteger[] reBig;
+            
+            public RowEvaluator(int rmin, int rmax) {
+                this.rmin = rmin;
+                this.rmax = rmax;
+                int n = rmax - rmin;
+                if (perturbation != null) {
+                    // Perturbation works in pixel coordinates
+                } else if (arbitrary != null) {
+                    reBig = new BigInteger[n];
+                    for (int x = rmin; x < rmax; x++) {
+                        reBig[x - rmin] = BigFixedComplex.toFixed(request.getRealExact(x), arbitrary.getBits());
+                    }
+                } else if (method == Precision.DOUBLE_DOUBLE) {
+                    reDD = new DoubleDouble[n];
+                    for (int x = rmin; x < rmax; x++) {
+                        reDD[x - rmin] = request.getRealDD(x);
+                    }
+                } else if (method == Precision.FIXED_128) {
+                    reFixedHi = new long[n];
+                    reFixedLo = new long[n];
+                    for (int x = rmin; x < rmax; x++) {
+                        BigInteger fixed = BigFixedComplex.toFixed(request.getRealExact(x), Fixed128Complex.FRACTION_BITS);
+                        reFixedHi[x - rmin] = fixed.shiftRight(64).longValue();
+                        reFixedLo[x - rmin] = fixed.longValue();
+                    }
+                } else {
+                    re = new double[n];
+                    for (int x = rmin; x < rmax; x++) {
+                        re[x - rmin] = request.getReal(x);
+                    }
+                    if (method == Precision.FLOAT || verification != null) {
+                        reFloat = new float[n];
+                        for (int x = 0; x < n; x++) {
+                            reFloat[x] = (float) re[x];
+                        }
+                    }
+                }
+            }
+            
+            /**
+             * Find escape times for pixels from x0 up to but not including x1
+             * on row y, copying any in the tile cache or on the previous
+             * render's pixel grid and calculating the rest
+             * 
+             * @param out Escape time for each pixel, starting at index 0
+             * @param lookup The calling task's tile cache lookup
+             */
+            public void escapeTimes(int y, int x0, int x1, double[] out, TileLookup lookup) {
+                // Checked here so that every strategy stops within a row of being cancelled
+                if (isCancelled()) {
+                    return;
+                }
+                int row = previous == null ? -1 : previous.rows.map(y);
+                if (row < 0 && placement == null) {
+                    calculate(y, x0, x1, out);
+                    return;
+                }
+                
+                // Copy the pixels already known, and calculate the rest together
+                int[] missing = new int[x1 - x0];
+                int n = 0;
+                for (int x = x0; x < x1; x++) {
+                    double escape = placement == null ? Double.NaN : lookup.escape(x, y);
+                    int column = row < 0 || !Double.isNaN(escape) ? -1 : previous.columns.map(x);
+                    if (column >= 0) {
+                        escape = previous.escapes[row * width + column];
+                    }
+                    if (Double.isNaN(escape)) {
+                        missing[n++] = x;
+                    } else {
+                        out[x - x0] = escape;
+                        if (orbits != null) {
+                            reuseOrbit(y * width + x, column >= 0 ? row * width + column : -1);
+                        }
+                    }
+                }
+                counts.addReused(x1 - x0 - n);
+                if (n == 0) {
+                    return;
+                }
+                if (n == x1 - x0) {
+                    calculate(y, x0, x1, out);
+                } else if (perturbation == null && reBig == null && reDD == null && reFixedHi == null) {
+                    // Gather the columns for one call to the row kernels
+                    counts.addComputed(n);
+                    double[] doubles = new double[n];
+                    float[] floats = reFloat == null ? null : new float[n];
+                    for (int i = 0; i < n; i++) {
+                        doubles[i] = re[missing[i] - rmin];
+                        if (floats != null) {
+                            floats[i] = reFloat[missing[i] - rmin];
+                        }
+                    }
+                    double[] result = new double[n];
+                    double[] orbit = orbits == null ? null : new double[2 * n];
+                    rowKernel(doubles, floats, request.getImaginary(y), result, orbit);
+                    for (int i = 0; i < n; i++) {
+                        out[missing[i] - x0] = result[i];
+                        if (orbit != null) {
+                            orbits[2 * (y * width + missing[i])] = orbit[2 * i];
+                            orbits[2 * (y * width + missing[i]) + 1] = orbit[2 * i + 1];
+                        }
+                    }
+                } else {
+                    double[] one = new double[1];
+                    for (int i = 0; i < n; i++) {
+                        calculate(y, missing[i], missing[i] + 1, one);
+                        out[missing[i] - x0] = one[0];
+                    }
+                }
+            }
+            
+            /**
+             * Find escape times for pixels from y0 up to but not including y1
+             * in column x, as escapeTimes does for a row. The row kernels
+             * share one imaginary part, so the pixels left to calculate go
+             * through them one at a time, all in the same buffers. Only
+             * subdivision calculates columns, and it keeps no orbits.
+             * 
+             * @param out Escape time for each pixel, starting at index 0
+             * @param lookup The calling task's tile cache lookup
+             */
+            public void escapeTimesColumn(int x, int y0, int y1, double[] out, TileLookup lookup) {
+                if (isCancelled()) {
+                    return;
+                }
+                int column = previous == null ? -1 : previous.columns.map(x);
+                int[] missing = new int[y1 - y0];
+                int n = 0;
+                for (int y = y0; y < y1; y++) {
+                    double escape = placement == null ? Double.NaN : lookup.escape(x, y);
+                    int row = column < 0 || !Double.isNaN(escape) ? -1 : previous.rows.map(y);
+                    if (row >= 0) {
+                        escape = previous.escapes[row * width + column];
+                    }
+                    if (Double.isNaN(escape)) {
+                        missing[n++] = y;
+                    } else {
+                        out[y - y0] = escape;
+                    }
+                }
+                counts.addReused(y1 - y0 - n);
+                if (n == 0) {
+                    return;
+                }
+                
+                double[] result = new double[1];
+                if (perturbation == null && reBig == null && reDD == null && reFixedHi == null) {
+                    counts.addComputed(n);
+                    double[] doubles = new double[] { re[x - rmin] };
+                    float[] floats = reFloat == null ? null : new float[] { reFloat[x - rmin] };
+                    for (int i = 0; i < n; i++) {
+                        rowKernel(doubles, floats, request.getImaginary(missing[i]), result, null);
+                        out[missing[i] - y0] = result[0];
+                    }
+                } else {
+                    for (int i = 0; i < n; i++) {
+                        calculate(missing[i], x, x + 1, result);
+                        out[missing[i] - y0] = result[0];
+                    }
+                }
+            }
+            
+            /**
+             * Calculate escape times for pixels from x0 up to but not
+             * including x1 on row y
+             * 
+             * @param out Escape time for each pixel, starting at index 0
+             */
+            private void calculate(int y, int x0, int x1, double[] out) {
+                if (x1 <= x0) {
+                    return;
+                }
+                counts.addComputed(x1 - x0);
+                if (perturbation != null) {
+                    for (int x = x0; x < x1; x++) {
+                        out[x - x0] = perturbation.escapeTime(x, y);
+                    }
+                } else if (reBig != null) {
+                    int bits = arbitrary.getBits();
+                    BigInteger im = BigFixedComplex.toFixed(request.getImaginaryExact(y), bits);
+                    for (int x = x0; x < x1; x++) {
+                        // Each pixel can take a while, so give up as soon as cancelled
+                        if (isCancelled()) {
+                            return;
+                        }
+                        BigFixedComplex point = new BigFixedComplex(reBig[x - rmin], im, bits);
+                        out[x - x0] = algorithm.escapeTime(point, arbitrary);
+                    }
+                } else if (reDD != null) {
+                    DoubleDouble im = request.getImaginaryDD(y);
+                    DoubleDoubleComplex point = new DoubleDoubleComplex();
+                    for (int x = x0; x < x1; x++) {
+                        point.set(reDD[x - rmin].hi(), reDD[x - rmin].lo(), im.hi(), im.lo());
+                        out[x - x0] = algorithm.escapeTime(point, periodicity);
+                    }
+                } else if (reFixedHi != null) {
+                    BigInteger im = BigFixedComplex.toFixed(request.getImaginaryExact(y), Fixed128Complex.FRACTION_BITS);
+                    long imHi = im.shiftRight(64).longValue();
+                    long imLo = im.longValue();
+                    Fixed128Complex point = new Fixed128Complex();
+                    for (int x = x0; x < x1; x++) {
+                        point.set(reFixedHi[x - rmin], reFixedLo[x - rmin], imHi, imLo);
+                        out[x - x0] = algorithm.escapeTime(point, periodicity);
+                    }
+                } else {
+                    escapeTimesRow(y, request.getImaginary(y), x0, x1, out);
+                }
+            }
+            
+            /**
+             * Double and float row kernels over a run of columns
+             */
+            private void escapeTimesRow(int y, double im, int x0, int x1, double[] out) {
+                // The row kernels take whole arrays
+                boolean whole = x0 == rmin && x1 == rmax && out.length == x1 - x0;
+                double[] doubles = whole ? re : Arrays.copyOfRange(re, x0 - rmin, x1 - rmin);
+                float[] floats = reFloat == null || whole ? reFloat : Arrays.copyOfRange(reFloat, x0 - rmin, x1 - rmin);
+                double[] result = whole ? out : new double[x1 - x0];
+                double[] orbit = orbits == null ? null : new double[2 * result.length];
+                
+                rowKernel(doubles, floats, im, result, orbit);
+                if (orbit != null) {
+                    System.arraycopy(orbit, 0, orbits, 2 * (y * width + x0), orbit.length);
+                }
+                if (!whole) {
+                    System.arraycopy(result, 0, out, 0, result.length);
+                }
+            }
+            
+            /**
+             * Run the double or float row kernel over the given columns,
+             * checking one against the other if verifying
+             * 
+             * @param orbit Where to leave each orbit, or null if not kept
+             */
+            private void rowKernel(double[] doubles, float[] floats, double im, double[] result, double[] orbit) {
+                if (verification != null) {
+                    // Render both ways, but keep the selected method
+                    double[] check = new double[result.length];
+                    double[] fromDoubles = method == Precision.FLOAT ? check : result;
+                    double[] fromFloats = method == Precision.FLOAT ? result : check;
+                    algorithm.escapeTimeRow(doubles, im, fromDoubles, periodicity);
+                    algorithm.escapeTimeRow(floats, (float) im, fromFloats, periodicity);
+                    for (int x = 0; x < result.length; x++) {
+                        boolean same = scheme.calculateRGB(fromFloats[x]) == scheme.calculateRGB(fromDoubles[x]);
+                        verification.record(fromFloats[x], fromDoubles[x], same);
+                    }
+                } else if (method == Precision.FLOAT) {
+                    algorithm.escapeTimeRow(floats, (float) im, result, periodicity);
+                } else if (orbit != null) {
+                    algorithm.escapeTimeRow(doubles, im, result, periodicity, orbit);
+                } else {
+                    algorithm.escapeTimeRow(doubles, im, result, periodicity);
+                }
+            }
+        }
+        
+        /**
+         * @return Arbitrary precision counters for this render, or null if not used
+         */
+        public ArbitraryPrecision getArbitraryPrecision() {
+            return arbitrary;
+        }
+        
+        /**
+         * @return Float against double comparison for this render, or null if not verifying
+         */
+        public FloatVerification getVerification() {
+            return verification;
+        }
+        
+        /**
+         * @return Counts of pixels calculated and filled so far in this render
+         */
+        public PixelCounts getPixelCounts() {
+            return counts;
+        }
+        
+        /**
+         * @return The rendered image
+         */
+        public BufferedImage getRender() {
+            // Tiles write straight into the image, so there is nothing to assemble
+            return image;
+        }
+        
+        /**
+         * @return Escape time of each pixel of the rendered image, in row-major order
+         */
+        public double[] getEscapes() {
+            return escapes;
+        }
+        
+        /**
+         * @return Request this render was created for
+         */
+        public RenderRequest getRequest() {
+            return request;
+        }
+        
+        /**
+         * @return Periodicity checking counters for this render, or null if disabled
+         */
+        public Periodicity getPeriodicity() {
+            return periodicity.isChecking() ? periodicity : null;
+        }
+        
+        /**
+         * @return The percentage progress of the render job
+         */
+        public int getProgress() {
+            return (int) (100 * getPixelsDone() / ((long) width * height));
+        }
+        
+        /**
+         * Estimate the time left from the iterations sampled for the tiles not
+         * yet finished, and the iterations per second calculated so far.
+         * Filled and reused pixels take no iterations, so they count towards
+         * neither.
+         * 
+         * @return Estimated milliseconds until the render is complete, or -1
+         *         if nothing has been calculated yet
+         */
+        public long getTimeRemaining() {
+            long done = getIterations();
+            if (done == 0 || start == 0) {
+                return -1;
+            }
+            long elapsed = System.nanoTime() - start;
+            // The tiles left are expected to fill the same share of their pixels
+            long computed = counts.getComputed();
+            double left = (double) estimateLeft.get() * computed / Math.max(1, computed + counts.getFilled());
+            return (long) (left * elapsed / done / 1000000);
+        }
+        
+        /**
+         * @return Iterations calculated so far, by whichever kernels the render uses
+         */
+        private long getIterations() {
+            long calculated = periodicity.getIterations();
+            if (arbitrary != null) {
+                calculated += arbitrary.getIterations();
+            }
+            if (perturbation != null) {
+                calculated += perturbation.getIterations();
+            }
+            return calculated;
+        }
+        
+        /**
+         * @return Number of pixels calculated, filled or reused so far, updated a row at a time
+         */
+        private long getPixelsDone() {
+            return Math.min((long) width * height, counts.getComputed() + counts.getFilled() + counts.getReused());
+        }
+        
+        /**
+         * @return True if render is complete
+         */
+        public boolean isRendered() {
+            // Perturbation renders aren't complete until their glitches are fixed
+            return tilesDone.get() == tilesX * tilesY && (method != Precision.PERTURBATION || glitchesFixed) && !cancelled;
+        }
+        
+    }
+    
+    /**
+     * Calculates the complex Cartesian coordinates for the given pixel
+     * 
+     * @param x X coordinate relative to top left
+     * @param y Y coordinate relative to top left
+     * @param width Width of the graph
+     * @param height Height of the graph
+     */
+    public Complex getCartesian(int x, int y) {
+        return new Complex(getReal(x), getImaginary(y));
+    }
+    
+    /**
+     * Calculates the complex Cartesian coordinates for the given pixel at
+     * full precision, for use when zoomed beyond double precision
+     * 
+     * @param x X coordinate relative to top left
+     * @param y Y coordinate relative to top left
+     */
+    public BigComplex getCartesianExact(int x, int y) {
+        return currentRequest().getCartesianExact(x, y);
+    }
+    
+    /**
+     * Calculates the complex Cartesian coordinates for the given pixel in
+     * double-double precision
+     * 
+     * @param x X coordinate relative to top left
+     * @param y Y coordinate relative to top left
+     */
+    public DoubleDoubleComplex getCartesianDD(int x, int y) {
+        return new DoubleDoubleComplex(getRealDD(x), getImaginaryDD(y));
+    }
+    
+    /**
+     * @return The complex coordinate at the centre of the panel, at full precision
+     */
+    public BigComplex getCentre() {
+        return currentRequest().getCentre();
+    }
+    
+    /**
+     * @return The real distance between adjacent pixels, at full precision
+     */
+    public BigDecimal getSpacingRe() {
+        return currentRequest().getSpacingRe();
+    }
+    
+    /**
+     * @return The imaginary distance between adjacent pixels, at full precision
+     */
+    public BigDecimal getSpacingIm() {
+        return currentRequest().getSpacingIm();
+    }
+    
+    /**
+     * Calculates the real Cartesian coordinate for the given pixel column
+     * 
+     * @param x X coordinate relative to top left
+     */
+    public double getReal(int x) {
+        return currentRequest().getReal(x);
+    }
+    
+    /**
+     * Calculates the imaginary Cartesian coordinate for the given pixel row
+     * 
+     * @param y Y coordinate relative to top left
+     */
+    public double getImaginary(int y) {
+        return currentRequest().getImaginary(y);
+    }
+    
+    /**
+     * Calculates the real Cartesian coordinate for the given pixel column
+     * exactly, from the full precision bounds
+     * 
+     * @param x X coordinate relative to top left
+     */
+    public BigDecimal getRealExact(int x) {
+        return currentRequest().getRealExact(x);
+    }
+    
+    /**
+     * Calculates the imaginary Cartesian coordinate for the given pixel row
+     * exactly, from the full precision bounds
+     * 
+     * @param y Y coordinate relative to top left
+     */
+    public BigDecimal getImaginaryExact(int y) {
+        return currentRequest().getImaginaryExact(y);
+    }
+    
+    /**
+     * Calculates the real Cartesian coordinate for the given pixel column in
+     * double-double precision
+     * 
+     * @param x X coordinate relative to top left
+     */
+    public DoubleDouble getRealDD(int x) {
+        return currentRequest().getRealDD(x);
+    }
+    
+    /**
+     * Calculates the imaginary Cartesian coordinate for the given pixel row in
+     * double-double precision
+     * 
+     * @param y Y coordinate relative to top left
+     */
+    public DoubleDouble getImaginaryDD(int y) {
+        return currentRequest().getImaginaryDD(y);
+    }
+    
+    /**
+     * Calculates the colour for the given pixel
+     * 
+     * @param x X coordinate relative to top left
+     * @param y Y coordinate relative to top left
+     */
+    public Color getPixelColour(int x, int y) {
+        // Get complex Cartesian coordinates without allocating
+        double re = getReal(x);
+        double im = getImaginary(y);
+        
+        return new Color(scheme.calculateRGB(algorithm.escapeTime(re, im), paletteOffset));
+    }
+    
+    /**
+     * Paints crosshairs at the given location
+     * If null, crosshairs are not drawn
+     */
+    public void paintCrosshairs(Point p) {
+        this.crosshairs = p;
+        this.repaint();
+    }
+    
+    /**
+     * Paints zoom rectangle
+     * If null, zoom rectangle is not drawn
+     */
+    public void paintZoom(Rectangle r) {
+        this.zoom = r;
+        this.repaint();
+    }
     
     /**
      * @return The fractal image cache
@@ -437,6 +2058,34 @@ public class FractalPanel extends JPanel {
         this.progressBar = null;
     }
     
+    /**
+     * @return Lower bound of the real axis, at full precision
+     */
+    public BigDecimal getRealMin() {
+        return exactRmin;
+    }
+    
+    /**
+     * @return Upper bound of the real axis, at full precision
+     */
+    public BigDecimal getRealMax() {
+        return exactRmax;
+    }
+    
+    /**
+     * @return Lower bound of the imaginary axis, at full precision
+     */
+    public BigDecimal getImaginaryMin() {
+        return exactImin;
+    }
+    
+    /**
+     * @return Upper bound of the imaginary axis, at full precision
+     */
+    public BigDecimal getImaginaryMax() {
+        return exactImax;
+    }
+    
     /**
      * Set the complex coordinate bounds of the fractal panel
      * 
@@ -456,11 +2105,234 @@ public class FractalPanel extends JPanel {
      * @param imax
      */
     public void setComplexBounds(double rmin, double rmax, double imin, double imax) {
-        this.rmin = rmin;
-        this.rmax = rmax;
-        this.imin = imin;
-        this.imax = imax;
-        this.repaint();
+        setComplexBounds(BigDecimal.valueOf(rmin), BigDecimal.valueOf(rmax), BigDecimal.valueOf(imin), BigDecimal.valueOf(imax));
+    }
+    
+    /**
+     * Set the complex coordinate bounds of the fractal panel in double-double
+     * precision
+     * 
+     * @param point1 Bottom left (minimum) complex point
+     * @param point2 Top right (maximum) complex point
+     */
+    public void setComplexBounds(DoubleDoubleComplex point1, DoubleDoubleComplex point2) {
+        setComplexBounds(point1.real().toBigDecimal(), point2.real().toBigDecimal(),
+                point1.imaginary().toBigDecimal(), point2.imaginary().toBigDecimal());
+    }
+    
+    /**
+     * Set the complex coordinate bounds of the fractal panel at full precision
+     * 
+     * @param point1 Bottom left (minimum) complex point
+     * @param point2 Top right (maximum) complex point
+     */
+    public void setComplexBounds(BigComplex point1, BigComplex point2) {
+        setComplexBounds(point1.real(), point2.real(), point1.imaginary(), point2.imaginary());
+    }
+    
+    /**
+     * Set the complex coordinate bounds of the fractal panel at full precision
+     * 
+     * @param rmin
+     * @param rmax
+     * @param imin
+     * @param imax
+     */
+    public void setComplexBounds(BigDecimal rmin, BigDecimal rmax, BigDecimal imin, BigDecimal imax) {
+        if (rmin.compareTo(exactRmin) == 0 && rmax.compareTo(exactRmax) == 0
+                && imin.compareTo(exactImin) == 0 && imax.compareTo(exactImax) == 0) {
+            return;
+        }
+        this.exactRmin = rmin;
+        this.exactRmax = rmax;
+        this.exactImin = imin;
+        this.exactImax = imax;
+        updateRequest();
+    }
+    
+    /**
+     * @return The selected numeric method for rendering
+     */
+    public Precision getPrecision() {
+        return precision;
+    }
+    
+    /**
+     * Select the numeric method for rendering
+     * @param precision
+     */
+    public void setPrecision(Precision precision) {
+        if (precision != this.precision) {
+            this.precision = precision;
+            updateRequest();
+        }
+    }
+    
+    /**
+     * Resolve the selected precision to the method a render would actually use
+     * at the current bounds
+     */
+    public Precision getEffectivePrecision() {
+        return currentRequest().getMethod();
+    }
+    
+    /**
+     * @return Strategy deciding which pixels to calculate
+     */
+    public RenderStrategy getStrategy() {
+        return strategy;
+    }
+    
+    /**
+     * Select the strategy deciding which pixels to calculate
+     * @param strategy
+     */
+    public void setStrategy(RenderStrategy strategy) {
+        if (strategy != this.strategy) {
+            this.strategy = strategy;
+            updateRequest();
+        }
+    }
+    
+    /**
+     * @return Largest difference in escape time across a block that solid guessing fills
+     */
+    public double getGuessTolerance() {
+        return guessTolerance;
+    }
+    
+    /**
+     * Set the largest difference in escape time across a block that solid
+     * guessing fills by interpolation. Zero only fills blocks whose corners
+     * are identical, such as the set interior.
+     * @param guessTolerance
+     */
+    public void setGuessTolerance(double guessTolerance) {
+        if (Double.doubleToLongBits(guessTolerance) != Double.doubleToLongBits(this.guessTolerance)) {
+            this.guessTolerance = guessTolerance;
+            updateRequest();
+        }
+    }
+    
+    /**
+     * @return Counts of pixels calculated and filled in the last completed render, or null if none
+     */
+    public PixelCounts getPixelCounts() {
+        return pixelCounts;
+    }
+    
+    /**
+     * @return True if AUTO may choose single precision for shallow views
+     */
+    public boolean isFloatAuto() {
+        return floatAuto;
+    }
+    
+    /**
+     * Allow or prevent AUTO from choosing single precision for shallow views
+     * @param floatAuto
+     */
+    public void setFloatAuto(boolean floatAuto) {
+        if (floatAuto != this.floatAuto) {
+            this.floatAuto = floatAuto;
+            updateRequest();
+        }
+    }
+    
+    /**
+     * @return True if FLOAT and DOUBLE renders are checked against each other
+     */
+    public boolean isFloatVerification() {
+        return floatVerification;
+    }
+    
+    /**
+     * Enable or disable checking FLOAT and DOUBLE renders against each other,
+     * rendering the view again. Each pixel is calculated both ways, so this
+     * is slow.
+     * @param floatVerification
+     */
+    public void setFloatVerification(boolean floatVerification) {
+        if (floatVerification != this.floatVerification) {
+            this.floatVerification = floatVerification;
+            cache.invalidate();
+            this.repaint();
+        }
+    }
+    
+    /**
+     * @return Float against double comparison from the last completed render, or null if none
+     */
+    public FloatVerification getVerification() {
+        return verification;
+    }
+    
+    /**
+     * @return True if orbit periodicity checking is used when rendering
+     */
+    public boolean isPeriodicityCheck() {
+        return periodicityCheck;
+    }
+    
+    /**
+     * Enable or disable orbit periodicity checking, rendering the view again
+     * @param periodicityCheck
+     */
+    public void setPeriodicityCheck(boolean periodicityCheck) {
+        if (periodicityCheck != this.periodicityCheck) {
+            this.periodicityCheck = periodicityCheck;
+            cache.invalidate();
+            this.repaint();
+        }
+    }
+    
+    /**
+     * @return True if double precision renders keep where each orbit was left
+     */
+    public boolean isKeepOrbits() {
+        return keepOrbits;
+    }
+    
+    /**
+     * Keep where each orbit was left in full double precision renders, so
+     * that raising the iteration limit only carries on the orbits which
+     * reached the old one. Costs two doubles per pixel. Takes effect from
+     * the next render, and never changes the image, so the view isn't
+     * rendered again.
+     * @param keepOrbits
+     */
+    public void setKeepOrbits(boolean keepOrbits) {
+        this.keepOrbits = keepOrbits;
+    }
+    
+    /**
+     * @return Cache of earlier views' escape times, or null if not caching
+     */
+    public TileCache getTileCache() {
+        return tileCache;
+    }
+    
+    /**
+     * Set the cache of earlier views' escape times. Renders take any pixels
+     * of their view from it and store the rest in it.
+     * @param tileCache The cache, or null to stop caching
+     */
+    public void setTileCache(TileCache tileCache) {
+        this.tileCache = tileCache;
+    }
+    
+    /**
+     * @return Periodicity checking counters from the last completed render, or null if none
+     */
+    public Periodicity getPeriodicity() {
+        return periodicity;
+    }
+    
+    /**
+     * @return Arbitrary precision counters from the last completed render, or null if none
+     */
+    public ArbitraryPrecision getArbitraryPrecision() {
+        return arbitraryPrecision;
     }
     
     /**
@@ -475,8 +2347,29 @@ public class FractalPanel extends JPanel {
      * @param scheme
      */
     public void setColourScheme(FractalColourScheme scheme) {
-        this.scheme = scheme;
-        this.repaint();
+        if (scheme != this.scheme) {
+            this.scheme = scheme;
+            updateRequest();
+        }
+    }
+    
+    /**
+     * @return Amount the colour scheme's gradient is rotated by
+     */
+    public double getPaletteOffset() {
+        return paletteOffset;
+    }
+    
+    /**
+     * Rotate the colour scheme's gradient through the set's exterior,
+     * wrapping around at 1.0
+     * @param paletteOffset
+     */
+    public void setPaletteOffset(double paletteOffset) {
+        if (Double.doubleToLongBits(paletteOffset) != Double.doubleToLongBits(this.paletteOffset)) {
+            this.paletteOffset = paletteOffset;
+            updateRequest();
+        }
     }
     
     /**
@@ -492,65 +2385,56 @@ public class FractalPanel extends JPanel {
      */
     public void setAlgorithm(FractalAlgorithm algorithm) {
         this.algorithm = algorithm;
-        this.repaint();
+        algorithmChanged();
     }
     
-    /*
-     * Generated hash code function (non-Javadoc)
-     * 
-     * @see java.lang.Object#hashCode()
+    /**
+     * Render again after the algorithm has been changed in place, such as by
+     * raising its iteration limit. The panel only looks at the algorithm
+     * when it is set or this is called. Renders already under way may have
+     * seen the change part way through, so they are cancelled.
      */
-    @Override
-    public int hashCode() {
-        final int prime = 31;
-        int result = 1;
-        result = prime * result + ((algorithm == null) ? 0 : algorithm.hashCode());
-        result = prime * result + ((scheme == null) ? 0 : scheme.hashCode());
-        long temp;
-        temp = Double.doubleToLongBits(rmax);
-        result = prime * result + (int) (temp ^ (temp >>> 32));
-        temp = Double.doubleToLongBits(rmin);
-        result = prime * result + (int) (temp ^ (temp >>> 32));
-        temp = Double.doubleToLongBits(imax);
-        result = prime * result + (int) (temp ^ (temp >>> 32));
-        temp = Double.doubleToLongBits(imin);
-        result = prime * result + (int) (temp ^ (temp >>> 32));
-        return result;
-    }
-    
-    /*
-     * Generated equals function (non-Javadoc)
-     * 
-     * @see java.lang.Object#equals(java.lang.Object)
+    public void algorithmChanged() {
+        generations.incrementAndGet();
+        updateRequest();
+    }
+    
+    /**
+     * @return What the panel would render now
      */
-    @Override
-    public boolean equals(Object obj) {
-        if (this == obj)
-            return true;
-        if (obj == null)
-            return false;
-        if (getClass() != obj.getClass())
-            return false;
-        FractalPanel other = (FractalPanel) obj;
-        if (algorithm == null) {
-            if (other.algorithm != null)
-                return false;
-        } else if (!algorithm.equals(other.algorithm))
-            return false;
-        if (scheme == null) {
-            if (other.scheme != null)
-                return false;
-        } else if (!scheme.equals(other.scheme))
-            return false;
-        if (Double.doubleToLongBits(rmax) != Double.doubleToLongBits(other.rmax))
-            return false;
-        if (Double.doubleToLongBits(rmin) != Double.doubleToLongBits(other.rmin))
-            return false;
-        if (Double.doubleToLongBits(imax) != Double.doubleToLongBits(other.imax))
-            return false;
-        if (Double.doubleToLongBits(imin) != Double.doubleToLongBits(other.imin))
-            return false;
-        return true;
-    }
-    
-}
\ No newline at end of file
+    public RenderRequest getRequest() {
+        return currentRequest();
+    }
+    
+    /**
+     * Describe the panel's state as a request of the given size
+     * @param width
+     * @param height
+     */
+    private RenderRequest createRequest(int width, int height) {
+        return new RenderRequest(this, width, height);
+    }
+    
+    /**
+     * @return The request, replaced first if the panel has been resized -
+     *         the size isn't set through the panel, so it is caught here
+     */
+    private RenderRequest currentRequest() {
+        RenderRequest current = request;
+        if (current.getWidth() != getWidth() || current.getHeight() != getHeight()) {
+            current = createRequest(getWidth(), getHeight());
+            request = current;
+        }
+        return current;
+    }
+    
+    /**
+     * Replace the request after a setter has changed the panel's state, and
+     * paint it
+     */
+    private void updateRequest() {
+        this.request = createRequest(getWidth(), getHeight());
+        this.repaint();
+    }
+    
+}
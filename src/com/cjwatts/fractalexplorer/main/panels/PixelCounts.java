@@ -0,0 +1,75 @@
+package com.cjwatts.fractalexplorer.main.panels;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts of pixels calculated, filled without calculating, and reused from an
+ * earlier render for a single render
+ * 
+ * Shared by all render threads, so the counters are atomic.
+ */
+public class PixelCounts {
+    
+    private final AtomicLong computed = new AtomicLong();
+    private final AtomicLong filled = new AtomicLong();
+    private final AtomicLong reused = new AtomicLong();
+    
+    /**
+     * Record pixels whose escape time was calculated
+     * @param pixels
+     */
+    public void addComputed(long pixels) {
+        computed.addAndGet(pixels);
+    }
+    
+    /**
+     * Record pixels filled in from their neighbours
+     * @param pixels
+     */
+    public void addFilled(long pixels) {
+        filled.addAndGet(pixels);
+    }
+    
+    /**
+     * Record pixels copied from an earlier render of an overlapping view
+     * @param pixels
+     */
+    public void addReused(long pixels) {
+        reused.addAndGet(pixels);
+    }
+    
+    /**
+     * @return Number of pixels whose escape time was calculated
+     */
+    public long getComputed() {
+        return computed.get();
+    }
+    
+    /**
+     * @return Number of pixels filled in from their neighbours
+     */
+    public long getFilled() {
+        return filled.get();
+    }
+    
+    /**
+     * @return Number of pixels copied from an earlier render
+     */
+    public long getReused() {
+        return reused.get();
+    }
+    
+    /**
+     * @return Fraction of pixels which were calculated
+     */
+    public double getComputedFraction() {
+        long total = getComputed() + getFilled() + getReused();
+        return total == 0 ? 1 : (double) getComputed() / total;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("%d computed, %d filled, %d reused (%.1f%% computed)",
+                getComputed(), getFilled(), getReused(), 100 * getComputedFraction());
+    }
+}
@@ -0,0 +1,47 @@
+package com.cjwatts.fractalexplorer.main.panels;
+
+/**
+ * Numeric methods a FractalPanel can render with
+ */
+public enum Precision {
+    
+    /**
+     * Choose the fastest method which can resolve the current pixel spacing
+     */
+    AUTO,
+    
+    /**
+     * Single precision - only good until pixel spacing reaches about 1e-5,
+     * and not reliably faster than DOUBLE on the JVM
+     */
+    FLOAT,
+    
+    /**
+     * Plain double precision - good until pixel spacing reaches about 1e-13
+     */
+    DOUBLE,
+    
+    /**
+     * Double-double arithmetic, about 106 bits - good until pixel spacing
+     * reaches about 1e-29
+     */
+    DOUBLE_DOUBLE,
+    
+    /**
+     * 128-bit fixed-point arithmetic with 120 fraction bits - resolves a
+     * fixed spacing of about 1e-30 anywhere on the plane
+     */
+    FIXED_128,
+    
+    /**
+     * Double precision deltas against a single arbitrary precision reference
+     * orbit per view - Mandelbrot only, otherwise falls back to DOUBLE
+     */
+    PERTURBATION,
+    
+    /**
+     * Fixed-point arithmetic at whatever precision the pixel spacing needs -
+     * slow, but good at any depth, so a baseline for checking the other methods
+     */
+    ARBITRARY
+}
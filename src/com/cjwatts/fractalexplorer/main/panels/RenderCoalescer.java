@@ -0,0 +1,155 @@
+package com.cjwatts.fractalexplorer.main.panels;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+/**
+ * Batches changes from the controls into a single render
+ * 
+ * Controls ask for an update rather than setting the panels themselves.
+ * The first request opens a window - the rest of the current event, or a
+ * few milliseconds - and any more requests within it are folded into the
+ * same update, which is applied when the window closes. Setting four axis
+ * spinners for one zoom, or a spinner's auto-repeat, then starts one
+ * render rather than one per change. Updates which leave every panel's
+ * request as it was don't render at all, and are counted as dropped.
+ * 
+ * All methods apart from the counts must be called on the event dispatch
+ * thread.
+ */
+public class RenderCoalescer {
+    
+    // Default window in milliseconds - zero waits only for the current event
+    public static final int DEFAULT_WINDOW = 50;
+    
+    // System property setting the window, in milliseconds
+    public static final String WINDOW_PROPERTY = "fractalexplorer.renderWindow";
+    
+    private final Runnable update;
+    private final FractalPanel[] panels;
+    private final Timer timer;
+    private boolean pending;
+    
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    
+    /**
+     * Create a coalescer with the window set by the {@value #WINDOW_PROPERTY}
+     * system property, or else {@value #DEFAULT_WINDOW} milliseconds
+     * @param update Applies the controls to the panels
+     * @param panels Panels the update may change
+     */
+    public RenderCoalescer(Runnable update, FractalPanel... panels) {
+        this(update, Integer.getInteger(WINDOW_PROPERTY, DEFAULT_WINDOW), panels);
+    }
+    
+    /**
+     * Create a coalescer
+     * @param update Applies the controls to the panels
+     * @param window Milliseconds to gather requests for, or zero for only
+     *        the rest of the current event
+     * @param panels Panels the update may change
+     */
+    public RenderCoalescer(Runnable update, int window, FractalPanel... panels) {
+        this.update = update;
+        this.panels = panels;
+        this.timer = new Timer(window, new ActionListener() {
+            
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                flush();
+            }
+        });
+        timer.setRepeats(false);
+    }
+    
+    /**
+     * Ask for the controls to be applied to the panels, along with any other
+     * requests made within the window
+     */
+    public void request() {
+        requests.incrementAndGet();
+        if (pending) {
+            coalesced.incrementAndGet();
+            return;
+        }
+        pending = true;
+        if (timer.getInitialDelay() > 0) {
+            timer.restart();
+        } else {
+            // Once the events already queued, such as the rest of a zoom, are done
+            SwingUtilities.invokeLater(new Runnable() {
+                
+                @Override
+                public void run() {
+                    flush();
+                }
+            });
+        }
+    }
+    
+    /**
+     * Apply the controls to the panels now, if a request is waiting
+     */
+    public void flush() {
+        if (!pending) {
+            return;
+        }
+        pending = false;
+        timer.stop();
+        
+        RenderRequest[] before = new RenderRequest[panels.length];
+        for (int i = 0; i < panels.length; i++) {
+            before[i] = panels[i].getRequest();
+        }
+        update.run();
+        for (int i = 0; i < panels.length; i++) {
+            if (!before[i].equals(panels[i].getRequest())) {
+                return;
+            }
+        }
+        dropped.incrementAndGet();
+    }
+    
+    /**
+     * @return Milliseconds requests are gathered for, or zero for only the
+     *         rest of the current event
+     */
+    public int getWindow() {
+        return timer.getInitialDelay();
+    }
+    
+    /**
+     * @param window Milliseconds to gather requests for, or zero for only
+     *        the rest of the current event
+     */
+    public void setWindow(int window) {
+        timer.setInitialDelay(window);
+    }
+    
+    /**
+     * @return Number of requests made
+     */
+    public long getRequests() {
+        return requests.get();
+    }
+    
+    /**
+     * @return Number of requests folded into one already waiting
+     */
+    public long getCoalesced() {
+        return coalesced.get();
+    }
+    
+    /**
+     * @return Number of updates dropped because they changed nothing
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+}
@@ -0,0 +1,140 @@
+package com.cjwatts.fractalexplorer.main.panels;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Long-lived threads shared by the renders of every FractalPanel
+ * 
+ * Each render is coordinated by one of a few threads fed from a bounded
+ * queue, while its tiles run on a work-stealing pool. Threads are named and
+ * daemon, and stay alive between frames so the JIT's work isn't wasted.
+ */
+public class RenderExecutor {
+    
+    // Renders coordinated at once - enough for the major and minor panels
+    public static final int COORDINATORS = 2;
+    
+    // Renders which can wait for a coordinator - beyond this, the caller runs them itself
+    public static final int QUEUE_CAPACITY = 8;
+    
+    // System property setting the number of tile threads in the shared executor
+    public static final String SIZE_PROPERTY = "fractalexplorer.renderThreads";
+    
+    // Time given to running renders to finish on shutdown, in milliseconds
+    private static final long SHUTDOWN_TIMEOUT = 1000;
+    
+    private static RenderExecutor shared;
+    
+    private final int size;
+    private final ThreadPoolExecutor coordinators;
+    private final ForkJoinPool tiles;
+    
+    /**
+     * Create a render executor
+     * @param size Number of threads rendering tiles
+     */
+    public RenderExecutor(int size) {
+        this.size = size;
+        this.coordinators = new ThreadPoolExecutor(COORDINATORS, COORDINATORS, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(QUEUE_CAPACITY),
+                new ThreadFactory() {
+                    
+                    private final AtomicInteger count = new AtomicInteger();
+                    
+                    @Override
+                    public Thread newThread(Runnable r) {
+                        Thread thread = new Thread(r, "fractal-render-" + count.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.tiles = new ForkJoinPool(size, new ForkJoinPool.ForkJoinWorkerThreadFactory() {
+            
+            private final AtomicInteger count = new AtomicInteger();
+            
+            @Override
+            public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName("fractal-tile-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        }, null, false);
+    }
+    
+    /**
+     * @return The executor shared by the whole application, sized by the
+     *         {@value #SIZE_PROPERTY} system property or else the number of
+     *         processors
+     */
+    public static synchronized RenderExecutor getShared() {
+        if (shared == null) {
+            int size = Integer.getInteger(SIZE_PROPERTY, Runtime.getRuntime().availableProcessors());
+            shared = new RenderExecutor(Math.max(1, size));
+        }
+        return shared;
+    }
+    
+    /**
+     * Shut down the shared executor, if it was ever created. A later call to
+     * getShared creates a new one.
+     */
+    public static synchronized void shutdownShared() {
+        if (shared != null) {
+            shared.shutdown();
+            shared = null;
+        }
+    }
+    
+    /**
+     * Queue a render to be coordinated
+     * @param render
+     * @return Future to wait on or cancel the render
+     */
+    public Future<?> submit(Runnable render) {
+        return coordinators.submit(render);
+    }
+    
+    /**
+     * @return Work-stealing pool for the tiles of each render
+     */
+    public ForkJoinPool getTilePool() {
+        return tiles;
+    }
+    
+    /**
+     * @return Number of threads rendering tiles
+     */
+    public int getSize() {
+        return size;
+    }
+    
+    /**
+     * Stop accepting renders, give running ones a moment to finish, then
+     * interrupt anything left
+     */
+    public void shutdown() {
+        coordinators.shutdown();
+        tiles.shutdown();
+        try {
+            if (!coordinators.awaitTermination(SHUTDOWN_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                coordinators.shutdownNow();
+            }
+            if (!tiles.awaitTermination(SHUTDOWN_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                tiles.shutdownNow();
+            }
+        } catch (InterruptedException ex) {
+            coordinators.shutdownNow();
+            tiles.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,437 @@
+package com.cjwatts.fractalexplorer.main.panels;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import com.cjwatts.fractalexplorer.main.FractalColourScheme;
+import com.cjwatts.fractalexplorer.main.algorithms.FractalAlgorithm;
+import com.cjwatts.fractalexplorer.main.algorithms.MandelbrotAlgorithm;
+import com.cjwatts.fractalexplorer.main.util.BigComplex;
+import com.cjwatts.fractalexplorer.main.util.DoubleDouble;
+
+/**
+ * Everything which decides the image a render produces, fixed when the
+ * request is made
+ * 
+ * Each request is identified by 128-bit digests of its description, which
+ * caches key on instead of hash codes - two different views colliding
+ * would show one in place of the other. There are four digests, each
+ * leaving out more of the request, so that a cache can tell what has
+ * changed since a render as well as whether anything has.
+ * 
+ * A render works out the coordinates of its pixels from its request, never
+ * from the panel, so changing the view part way through a render can't
+ * leave it with pixels from two views.
+ */
+public final class RenderRequest {
+    
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+    
+    private final String algorithm;
+    private final Precision precision;
+    private final Precision method;
+    private final RenderStrategy strategy;
+    private final double guessTolerance;
+    private final int width, height;
+    private final double paletteOffset;
+    
+    // Bounds at full precision, and rounded to double and double-double
+    private final BigDecimal exactRmin, exactRmax, exactImin, exactImax;
+    private final double rmin, rmax, imin, imax;
+    private final DoubleDouble ddRmin, ddRmax, ddImin, ddImax;
+    
+    private final Digest digest;
+    private final Digest escapeDigest;
+    private final Digest kernelDigest;
+    private final Digest orbitDigest;
+    
+    /**
+     * Describe what a panel would render now, at the given size
+     * @param panel
+     * @param width Width of the image, in pixels
+     * @param height Height of the image, in pixels
+     */
+    RenderRequest(FractalPanel panel, int width, int height) {
+        FractalAlgorithm algorithm = panel.getAlgorithm();
+        FractalColourScheme scheme = panel.getColourScheme();
+        this.algorithm = (algorithm == null) ? "none" : algorithm.getParameters();
+        this.precision = panel.getPrecision();
+        this.strategy = panel.getStrategy();
+        this.guessTolerance = panel.getGuessTolerance();
+        this.width = width;
+        this.height = height;
+        this.paletteOffset = panel.getPaletteOffset();
+        
+        this.exactRmin = panel.getRealMin();
+        this.exactRmax = panel.getRealMax();
+        this.exactImin = panel.getImaginaryMin();
+        this.exactImax = panel.getImaginaryMax();
+        this.rmin = exactRmin.doubleValue();
+        this.rmax = exactRmax.doubleValue();
+        this.imin = exactImin.doubleValue();
+        this.imax = exactImax.doubleValue();
+        this.ddRmin = DoubleDouble.valueOf(exactRmin);
+        this.ddRmax = DoubleDouble.valueOf(exactRmax);
+        this.ddImin = DoubleDouble.valueOf(exactImin);
+        this.ddImax = DoubleDouble.valueOf(exactImax);
+        this.method = resolve(precision, algorithm instanceof MandelbrotAlgorithm, panel.isFloatAuto());
+        
+        // Each description takes in the one before, so the digests nest
+        // The method the selection resolves to, which is what decides the escape times
+        String kernel = "algorithm=" + this.algorithm + "\nprecision=" + method + "\n";
+        String orbit = "orbit=" + ((algorithm == null) ? "none" : algorithm.getOrbitParameters())
+                + "\nprecision=" + method + "\n";
+        String escapes = kernel + "bounds=" + canonical(exactRmin) + "," + canonical(exactRmax) + ","
+                + canonical(exactImin) + "," + canonical(exactImax) + "\nsize=" + width + "x" + height + "\n"
+                + "strategy=" + strategy + "\n";
+        if (strategy == RenderStrategy.SOLID_GUESSING) {
+            // Only solid guessing uses the tolerance
+            escapes += "guessTolerance=" + guessTolerance + "\n";
+        }
+        String colours = escapes + "scheme=" + ((scheme == null) ? "none" : scheme.getParameters())
+                + "\npaletteOffset=" + paletteOffset + "\n";
+        this.kernelDigest = new Digest(kernel);
+        this.orbitDigest = new Digest(orbit);
+        this.escapeDigest = new Digest(escapes);
+        this.digest = new Digest(colours);
+    }
+    
+    /**
+     * Resolve the selected precision to the method a render would actually
+     * use at this view. A view with no pixels is never rendered, so AUTO
+     * resolves to DOUBLE for it.
+     */
+    private Precision resolve(Precision precision, boolean perturbable, boolean floatAuto) {
+        switch (precision) {
+            case PERTURBATION:
+                return perturbable ? Precision.PERTURBATION : Precision.DOUBLE;
+            case AUTO:
+                if (width == 0 || height == 0) {
+                    return Precision.DOUBLE;
+                }
+                // Pixel spacing relative to the largest coordinate on screen
+                double magnitude = Math.max(Math.max(Math.abs(rmin), Math.abs(rmax)), Math.max(Math.abs(imin), Math.abs(imax)));
+                double spacing = Math.min(getSpacingRe().abs().doubleValue(), getSpacingIm().abs().doubleValue());
+                if (floatAuto && spacing >= magnitude * FractalPanel.FLOAT_RESOLUTION) {
+                    return Precision.FLOAT;
+                } else if (spacing >= magnitude * FractalPanel.DOUBLE_RESOLUTION) {
+                    return Precision.DOUBLE;
+                } else if (spacing >= magnitude * FractalPanel.DOUBLE_DOUBLE_RESOLUTION) {
+                    return Precision.DOUBLE_DOUBLE;
+                }
+                // Beyond double-double - only Mandelbrot can be perturbed
+                return perturbable ? Precision.PERTURBATION : Precision.ARBITRARY;
+            default:
+                return precision;
+        }
+    }
+    
+    /**
+     * @return The same number written the same way whatever its scale
+     */
+    private static String canonical(BigDecimal value) {
+        return (value.signum() == 0) ? "0" : value.stripTrailingZeros().toString();
+    }
+    
+    /**
+     * @return Digest of the whole request
+     */
+    public Digest getDigest() {
+        return digest;
+    }
+    
+    /**
+     * @return Digest of everything deciding the escape times - the whole
+     *         request apart from the colouring
+     */
+    public Digest getEscapeDigest() {
+        return escapeDigest;
+    }
+    
+    /**
+     * @return Digest of everything deciding how each point is calculated -
+     *         the algorithm and precision, without the view
+     */
+    public Digest getKernelDigest() {
+        return kernelDigest;
+    }
+    
+    /**
+     * @return Digest of everything deciding the orbit of each point apart
+     *         from the iteration limit
+     */
+    public Digest getOrbitDigest() {
+        return orbitDigest;
+    }
+    
+    /**
+     * @return Description of the algorithm, as given by its getParameters
+     */
+    public String getAlgorithmParameters() {
+        return algorithm;
+    }
+    
+    /**
+     * @return Selected numeric method
+     */
+    public Precision getPrecision() {
+        return precision;
+    }
+    
+    /**
+     * @return Numeric method a render of this request uses - the selected
+     *         one, resolved for this view
+     */
+    public Precision getMethod() {
+        return method;
+    }
+    
+    /**
+     * @return Strategy deciding which pixels to calculate
+     */
+    public RenderStrategy getStrategy() {
+        return strategy;
+    }
+    
+    /**
+     * @return Largest difference in escape time across a block that solid guessing fills
+     */
+    public double getGuessTolerance() {
+        return guessTolerance;
+    }
+    
+    public BigDecimal getRealMin() {
+        return exactRmin;
+    }
+    
+    public BigDecimal getRealMax() {
+        return exactRmax;
+    }
+    
+    public BigDecimal getImaginaryMin() {
+        return exactImin;
+    }
+    
+    public BigDecimal getImaginaryMax() {
+        return exactImax;
+    }
+    
+    public int getWidth() {
+        return width;
+    }
+    
+    public int getHeight() {
+        return height;
+    }
+    
+    public double getPaletteOffset() {
+        return paletteOffset;
+    }
+    
+    /**
+     * @return The complex coordinate at the centre of the view, at full precision
+     */
+    public BigComplex getCentre() {
+        BigDecimal half = BigDecimal.valueOf(0.5);
+        return new BigComplex(
+                exactRmin.add(exactRmax).multiply(half),
+                exactImin.add(exactImax).multiply(half));
+    }
+    
+    /**
+     * @return The real distance between adjacent pixels, at full precision
+     */
+    public BigDecimal getSpacingRe() {
+        if (width == 0) {
+            throw new IllegalStateException("Fractal panel does not have a valid width: " + width);
+        }
+        return exactRmax.subtract(exactRmin).divide(BigDecimal.valueOf(width), MathContext.DECIMAL128);
+    }
+    
+    /**
+     * @return The imaginary distance between adjacent pixels, at full precision
+     */
+    public BigDecimal getSpacingIm() {
+        if (height == 0) {
+            throw new IllegalStateException("Fractal panel does not have a valid height: " + height);
+        }
+        return exactImax.subtract(exactImin).divide(BigDecimal.valueOf(height), MathContext.DECIMAL128);
+    }
+    
+    /**
+     * Calculates the complex Cartesian coordinates for the given pixel at
+     * full precision, for use when zoomed beyond double precision
+     * 
+     * @param x X coordinate relative to top left
+     * @param y Y coordinate relative to top left
+     */
+    public BigComplex getCartesianExact(int x, int y) {
+        BigDecimal spacingRe = getSpacingRe();
+        BigDecimal spacingIm = getSpacingIm();
+        MathContext mc = BigComplex.contextFor(spacingRe.min(spacingIm));
+        
+        BigComplex offset = new BigComplex(
+                spacingRe.multiply(BigDecimal.valueOf(x - width / 2)),
+                spacingIm.multiply(BigDecimal.valueOf(y - height / 2)));
+        return getCentre().add(offset, mc);
+    }
+    
+    /**
+     * Calculates the real Cartesian coordinate for the given pixel column
+     * 
+     * @param x X coordinate relative to top left
+     */
+    public double getReal(int x) {
+        if (width == 0) {
+            throw new IllegalStateException("Fractal panel does not have a valid width: " + width);
+        } else {
+            // Move the graph into the centre of the container
+            double calcX = x - width / 2;
+            // Scale the axis
+            calcX *= (rmax - rmin) / width;
+            // Add the average of the x space
+            return calcX + (rmin + rmax) / 2;
+        }
+    }
+    
+    /**
+     * Calculates the imaginary Cartesian coordinate for the given pixel row
+     * 
+     * @param y Y coordinate relative to top left
+     */
+    public double getImaginary(int y) {
+        if (height == 0) {
+            throw new IllegalStateException("Fractal panel does not have a valid height: " + height);
+        } else {
+            // Move the graph into the centre of the container
+            double calcY = y - height / 2;
+            // Scale the axis
+            calcY *= (imax - imin) / height;
+            // Add the average of the y space
+            return calcY + (imin + imax) / 2;
+        }
+    }
+    
+    /**
+     * Calculates the real Cartesian coordinate for the given pixel column
+     * exactly, from the full precision bounds
+     * 
+     * @param x X coordinate relative to top left
+     */
+    public BigDecimal getRealExact(int x) {
+        BigDecimal offset = getSpacingRe().multiply(BigDecimal.valueOf(x - width / 2));
+        return getCentre().real().add(offset);
+    }
+    
+    /**
+     * Calculates the imaginary Cartesian coordinate for the given pixel row
+     * exactly, from the full precision bounds
+     * 
+     * @param y Y coordinate relative to top left
+     */
+    public BigDecimal getImaginaryExact(int y) {
+        BigDecimal offset = getSpacingIm().multiply(BigDecimal.valueOf(y - height / 2));
+        return getCentre().imaginary().add(offset);
+    }
+    
+    /**
+     * Calculates the real Cartesian coordinate for the given pixel column in
+     * double-double precision
+     * 
+     * @param x X coordinate relative to top left
+     */
+    public DoubleDouble getRealDD(int x) {
+        if (width == 0) {
+            throw new IllegalStateException("Fractal panel does not have a valid width: " + width);
+        } else {
+            // As getReal - centre, scale, then offset
+            DoubleDouble scale = ddRmax.subtract(ddRmin).divide(width);
+            return scale.multiply(x - width / 2).add(ddRmin.add(ddRmax).multiply(0.5));
+        }
+    }
+    
+    /**
+     * Calculates the imaginary Cartesian coordinate for the given pixel row in
+     * double-double precision
+     * 
+     * @param y Y coordinate relative to top left
+     */
+    public DoubleDouble getImaginaryDD(int y) {
+        if (height == 0) {
+            throw new IllegalStateException("Fractal panel does not have a valid height: " + height);
+        } else {
+            // As getImaginary - centre, scale, then offset
+            DoubleDouble scale = ddImax.subtract(ddImin).divide(height);
+            return scale.multiply(y - height / 2).add(ddImin.add(ddImax).multiply(0.5));
+        }
+    }
+    
+    @Override
+    public int hashCode() {
+        return digest.hashCode();
+    }
+    
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (!(obj instanceof RenderRequest))
+            return false;
+        return digest.equals(((RenderRequest) obj).digest);
+    }
+    
+    @Override
+    public String toString() {
+        return digest.toString();
+    }
+    
+    /**
+     * A 128-bit MD5 digest of a description. MD5 is no use against someone
+     * choosing collisions, but views aren't chosen to collide, and it is the
+     * cheapest 128-bit digest every Java platform has.
+     */
+    public static final class Digest {
+        
+        private final long high, low;
+        
+        private Digest(String description) {
+            MessageDigest md5;
+            try {
+                md5 = MessageDigest.getInstance("MD5");
+            } catch (NoSuchAlgorithmException ex) {
+                // Every Java platform is required to support MD5
+                throw new IllegalStateException(ex);
+            }
+            ByteBuffer bytes = ByteBuffer.wrap(md5.digest(description.getBytes(UTF8)));
+            this.high = bytes.getLong();
+            this.low = bytes.getLong();
+        }
+        
+        @Override
+        public int hashCode() {
+            return (int) (high ^ (high >>> 32));
+        }
+        
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj)
+                return true;
+            if (!(obj instanceof Digest))
+                return false;
+            Digest other = (Digest) obj;
+            return high == other.high && low == other.low;
+        }
+        
+        /**
+         * @return The digest in hexadecimal, the same from one run to the next
+         */
+        @Override
+        public String toString() {
+            return String.format("%016x%016x", high, low);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.cjwatts.fractalexplorer.main.panels;
+
+/**
+ * Ways a FractalPanel can decide which pixels to calculate
+ */
+public enum RenderStrategy {
+    
+    /**
+     * Calculate every pixel
+     */
+    FULL,
+    
+    /**
+     * Mariani-Silver subdivision - calculate the border of a rectangle and
+     * fill it if every border pixel has the same escape time, otherwise split
+     * it in two and repeat. Fast over the set interior and flat bands.
+     */
+    MARIANI_SILVER,
+    
+    /**
+     * Solid guessing - calculate a coarse grid, then refine only the blocks
+     * whose corners disagree, interpolating across the rest. Also fast over
+     * smooth exterior gradients, within the panel's guess tolerance.
+     */
+    SOLID_GUESSING
+}
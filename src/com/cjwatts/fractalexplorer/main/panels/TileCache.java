@@ -0,0 +1,432 @@
+package com.cjwatts.fractalexplorer.main.panels;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.cjwatts.fractalexplorer.main.io.DiskTileCache;
+
+/**
+ * A memory-bounded cache of escape times shared by every FractalPanel, laid
+ * out like map tiles
+ * 
+ * Each level of the pyramid is one pixel grid - how the escape times were
+ * calculated, the spacing between samples, and where the samples fall
+ * within that spacing - and each tile is a square of samples on that grid,
+ * indexed from the complex origin. A render on the same grid can take the
+ * samples it overlaps however far it has been panned, and whatever the
+ * size of the panel. Once the tiles take more memory than the budget, the
+ * least recently used are evicted.
+ * 
+ * Tiles can be kept between runs by a DiskTileCache beneath, which is
+ * searched on a miss and given each tile which gains samples.
+ */
+public class TileCache {
+    
+    // Samples along each side of a tile
+    public static final int TILE_SIZE = 64;
+    
+    // Default memory budget, in bytes
+    public static final long DEFAULT_BUDGET = 64L << 20;
+    
+    // System property setting the memory budget of the shared cache, in bytes
+    public static final String BUDGET_PROPERTY = "fractalexplorer.tileCacheBytes";
+    
+    // Memory taken by one tile's escape times
+    private static final long TILE_BYTES = 8L * TILE_SIZE * TILE_SIZE;
+    
+    // Decimal places to which a grid's phase must agree
+    private static final int PHASE_SCALE = 6;
+    
+    // Significant figures to which a grid's spacing must agree
+    private static final MathContext SPACING_CONTEXT = new MathContext(24);
+    
+    private static TileCache shared;
+    
+    // In access order, so the eldest entry is the least recently used
+    private final LinkedHashMap<Key, double[]> tiles = new LinkedHashMap<Key, double[]>(16, 0.75f, true);
+    private long budget;
+    private long hits, misses;
+    private DiskTileCache disk;
+    
+    /**
+     * Create a tile cache
+     * @param budget Largest memory the tiles may take, in bytes
+     */
+    public TileCache(long budget) {
+        this.budget = budget;
+    }
+    
+    /**
+     * @return The cache shared by the whole application, sized by the
+     *         {@value #BUDGET_PROPERTY} system property or else
+     *         {@value #DEFAULT_BUDGET} bytes
+     */
+    public static synchronized TileCache getShared() {
+        if (shared == null) {
+            shared = new TileCache(Long.getLong(BUDGET_PROPERTY, DEFAULT_BUDGET));
+        }
+        return shared;
+    }
+    
+    /**
+     * Find a tile
+     * @param level
+     * @param column Tile index across, from the origin
+     * @param row Tile index down, from the origin
+     * @return Escape times of the tile in row-major order, NaN where not yet
+     *         known, or null if there is no such tile. Never changed once returned.
+     */
+    public double[] get(Level level, BigInteger column, BigInteger row) {
+        Key key = new Key(level, column, row);
+        double[] tile;
+        DiskTileCache disk;
+        synchronized (this) {
+            tile = tiles.get(key);
+            disk = this.disk;
+        }
+        if (tile == null && disk != null) {
+            tile = disk.get(key.toString());
+        }
+        
+        synchronized (this) {
+            if (tile == null) {
+                misses++;
+            } else {
+                hits++;
+                if (!tiles.containsKey(key)) {
+                    // Read from disk, so keep it in memory from now on
+                    tiles.put(key, tile);
+                    evict();
+                }
+            }
+        }
+        return tile;
+    }
+    
+    /**
+     * Merge the escape times of a render into the tiles it overlaps
+     * @param placement Where the render's top left pixel lies
+     * @param escapes Escape times of the render in row-major order
+     * @param width
+     * @param height
+     * @param tag Digest of how the render calculated its escape times, kept
+     *        with the tiles on disk so a bad render's tiles can be dropped
+     */
+    public void store(Placement placement, double[] escapes, int width, int height, String tag) {
+        int columns = (placement.x + width + TILE_SIZE - 1) / TILE_SIZE;
+        int rows = (placement.y + height + TILE_SIZE - 1) / TILE_SIZE;
+        for (int j = 0; j < rows; j++) {
+            for (int i = 0; i < columns; i++) {
+                Key key = new Key(placement.level,
+                        placement.column.add(BigInteger.valueOf(i)), placement.row.add(BigInteger.valueOf(j)));
+                        
+                // Copied rather than changed, so readers never see a tile half merged
+                double[] old;
+                synchronized (this) {
+                    old = tiles.get(key);
+                }
+                double[] tile;
+                if (old == null) {
+                    tile = new double[TILE_SIZE * TILE_SIZE];
+                    Arrays.fill(tile, Double.NaN);
+                } else {
+                    tile = old.clone();
+                }
+                
+                // The part of the render within this tile, relative to the render
+                int x0 = Math.max(0, i * TILE_SIZE - placement.x);
+                int x1 = Math.min(width, (i + 1) * TILE_SIZE - placement.x);
+                int y0 = Math.max(0, j * TILE_SIZE - placement.y);
+                int y1 = Math.min(height, (j + 1) * TILE_SIZE - placement.y);
+                for (int y = y0; y < y1; y++) {
+                    System.arraycopy(escapes, y * width + x0,
+                            tile, (placement.y + y - j * TILE_SIZE) * TILE_SIZE + placement.x + x0 - i * TILE_SIZE, x1 - x0);
+                }
+                
+                DiskTileCache disk;
+                synchronized (this) {
+                    tiles.put(key, tile);
+                    evict();
+                    disk = this.disk;
+                }
+                if (disk != null) {
+                    disk.put(key.toString(), tag, tile);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Remove the least recently used tiles until within the budget
+     */
+    private synchronized void evict() {
+        Iterator<Map.Entry<Key, double[]>> eldest = tiles.entrySet().iterator();
+        while (tiles.size() * TILE_BYTES > budget && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+        }
+    }
+    
+    /**
+     * @return The cache kept between runs beneath this one, or null if none
+     */
+    public synchronized DiskTileCache getDisk() {
+        return disk;
+    }
+    
+    /**
+     * Set the cache kept between runs beneath this one
+     * @param disk The cache, or null to keep tiles in memory only
+     */
+    public synchronized void setDisk(DiskTileCache disk) {
+        this.disk = disk;
+    }
+    
+    /**
+     * Remove every tile held in memory
+     */
+    public synchronized void clear() {
+        tiles.clear();
+    }
+    
+    /**
+     * @return Largest memory the tiles may take, in bytes
+     */
+    public synchronized long getBudget() {
+        return budget;
+    }
+    
+    /**
+     * Set the largest memory the tiles may take, evicting any over it
+     * @param budget In bytes
+     */
+    public synchronized void setBudget(long budget) {
+        this.budget = budget;
+        evict();
+    }
+    
+    /**
+     * @return Memory taken by the tiles held in memory, in bytes
+     */
+    public synchronized long getSize() {
+        return tiles.size() * TILE_BYTES;
+    }
+    
+    /**
+     * @return Number of tiles held in memory
+     */
+    public synchronized int getTileCount() {
+        return tiles.size();
+    }
+    
+    /**
+     * @return Number of lookups which found their tile
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+    
+    /**
+     * @return Number of lookups which didn't find their tile
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+    
+    /**
+     * One pixel grid - samples spaced spacingRe by spacingIm apart, offset
+     * from whole multiples of the spacing by phaseRe and phaseIm of it - and
+     * how escape times on it were calculated
+     */
+    public static final class Level {
+        
+        private final String kernel;
+        private final BigDecimal spacingRe, spacingIm;
+        private final BigDecimal phaseRe, phaseIm;
+        
+        /**
+         * Find the grid with the given spacing through a sample
+         * @param kernel Description of everything deciding the escape time
+         *        at a point, the same from one run to the next
+         * @param re Real coordinate of a sample
+         * @param im Imaginary coordinate of a sample
+         * @param spacingRe Real distance between samples
+         * @param spacingIm Imaginary distance between samples
+         */
+        public Level(String kernel, BigDecimal re, BigDecimal im, BigDecimal spacingRe, BigDecimal spacingIm) {
+            this.kernel = kernel;
+            this.spacingRe = spacingRe.round(SPACING_CONTEXT).stripTrailingZeros();
+            this.spacingIm = spacingIm.round(SPACING_CONTEXT).stripTrailingZeros();
+            this.phaseRe = split(re, this.spacingRe)[1];
+            this.phaseIm = split(im, this.spacingIm)[1];
+        }
+        
+        /**
+         * Split a coordinate into whole samples from the origin, and the
+         * fraction of a sample left over
+         * @return Whole samples and fraction, the fraction in [0, 1)
+         */
+        private static BigDecimal[] split(BigDecimal coordinate, BigDecimal spacing) {
+            BigDecimal[] parts = coordinate.divideAndRemainder(spacing);
+            BigDecimal whole = parts[0];
+            BigDecimal phase = parts[1].divide(spacing, MathContext.DECIMAL64).setScale(PHASE_SCALE, RoundingMode.HALF_EVEN);
+            if (phase.signum() < 0) {
+                whole = whole.subtract(BigDecimal.ONE);
+                phase = phase.add(BigDecimal.ONE);
+            }
+            if (phase.compareTo(BigDecimal.ONE) >= 0) {
+                whole = whole.add(BigDecimal.ONE);
+                phase = phase.subtract(BigDecimal.ONE);
+            }
+            return new BigDecimal[] { whole, phase.stripTrailingZeros() };
+        }
+        
+        @Override
+        public int hashCode() {
+            final int prime = 31;
+            int result = 1;
+            result = prime * result + kernel.hashCode();
+            result = prime * result + spacingRe.hashCode();
+            result = prime * result + spacingIm.hashCode();
+            result = prime * result + phaseRe.hashCode();
+            result = prime * result + phaseIm.hashCode();
+            return result;
+        }
+        
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj)
+                return true;
+            if (!(obj instanceof Level))
+                return false;
+            Level other = (Level) obj;
+            return kernel.equals(other.kernel)
+                    && spacingRe.compareTo(other.spacingRe) == 0 && spacingIm.compareTo(other.spacingIm) == 0
+                    && phaseRe.compareTo(other.phaseRe) == 0 && phaseIm.compareTo(other.phaseIm) == 0;
+        }
+    }
+    
+    /**
+     * Where a render's top left pixel lies on a level - in tile (column, row),
+     * at (x, y) within it
+     */
+    public static final class Placement {
+        
+        private final Level level;
+        private final BigInteger column, row;
+        private final int x, y;
+        
+        /**
+         * Place a pixel on a level
+         * @param level
+         * @param re Real coordinate of the pixel's sample
+         * @param im Imaginary coordinate of the pixel's sample
+         */
+        public Placement(Level level, BigDecimal re, BigDecimal im) {
+            this.level = level;
+            BigInteger[] across = tile(Level.split(re, level.spacingRe)[0]);
+            BigInteger[] down = tile(Level.split(im, level.spacingIm)[0]);
+            this.column = across[0];
+            this.row = down[0];
+            this.x = across[1].intValue();
+            this.y = down[1].intValue();
+        }
+        
+        /**
+         * @return Tile index and position within the tile of a sample index
+         */
+        private static BigInteger[] tile(BigDecimal sample) {
+            BigInteger[] parts = sample.toBigInteger().divideAndRemainder(BigInteger.valueOf(TILE_SIZE));
+            if (parts[1].signum() < 0) {
+                parts[0] = parts[0].subtract(BigInteger.ONE);
+                parts[1] = parts[1].add(BigInteger.valueOf(TILE_SIZE));
+            }
+            return parts;
+        }
+        
+        /**
+         * @return The level the render lies on
+         */
+        public Level getLevel() {
+            return level;
+        }
+        
+        /**
+         * @return Tile index across of the render's top left pixel
+         */
+        public BigInteger getColumn() {
+            return column;
+        }
+        
+        /**
+         * @return Tile index down of the render's top left pixel
+         */
+        public BigInteger getRow() {
+            return row;
+        }
+        
+        /**
+         * @return Position across of the render's top left pixel within its tile
+         */
+        public int getX() {
+            return x;
+        }
+        
+        /**
+         * @return Position down of the render's top left pixel within its tile
+         */
+        public int getY() {
+            return y;
+        }
+    }
+    
+    /**
+     * A tile on a level
+     */
+    private static final class Key {
+        
+        private final Level level;
+        private final BigInteger column, row;
+        
+        public Key(Level level, BigInteger column, BigInteger row) {
+            this.level = level;
+            this.column = column;
+            this.row = row;
+        }
+        
+        @Override
+        public int hashCode() {
+            final int prime = 31;
+            int result = 1;
+            result = prime * result + level.hashCode();
+            result = prime * result + column.hashCode();
+            result = prime * result + row.hashCode();
+            return result;
+        }
+        
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj)
+                return true;
+            if (!(obj instanceof Key))
+                return false;
+            Key other = (Key) obj;
+            return level.equals(other.level) && column.equals(other.column) && row.equals(other.row);
+        }
+        
+        /**
+         * @return Every part of the key, the same from one run to the next
+         */
+        @Override
+        public String toString() {
+            return level.kernel + "|" + level.spacingRe + "," + level.spacingIm + "|"
+                    + level.phaseRe + "," + level.phaseIm + "|" + column + "," + row;
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package com.cjwatts.fractalexplorer.main.util;
 
+import java.math.BigDecimal;
+import java.math.MathContext;
+
 import javax.swing.JSpinner;
 import javax.swing.SpinnerNumberModel;
 import javax.swing.event.ChangeEvent;
@@ -8,24 +11,30 @@ import javax.swing.event.ChangeListener;
 public class AxisSpinner extends JSpinner {
     
     private static final long serialVersionUID = 1L;
-    private static final double STEP_RATIO = 0.1;
+    private static final BigDecimal STEP_RATIO = BigDecimal.valueOf(0.1);
+    private static final BigDecimal LIMIT = BigDecimal.valueOf(10);
     
-    private SpinnerNumberModel model;
+    private BigDecimalModel model;
     
     public AxisSpinner() {
         super();
         // Model setup
-        model = new SpinnerNumberModel(0.0, -10.0, 10.0, 0.1);
+        model = new BigDecimalModel();
         this.setModel(model);
         
+        // Show and parse values at full precision
+        JSpinner.NumberEditor editor = (JSpinner.NumberEditor) this.getEditor();
+        editor.getFormat().setParseBigDecimal(true);
+        editor.getFormat().setMaximumFractionDigits(Integer.MAX_VALUE);
+        
         // Step recalculation
         this.addChangeListener(new ChangeListener() {
             
             @Override
             public void stateChanged(ChangeEvent e) {
-                Double value = Math.abs(getDouble());
+                BigDecimal value = getBigDecimal().abs();
                 // Steps are sensitive to the current value
-                model.setStepSize(STEP_RATIO * value);
+                model.setStepSize(STEP_RATIO.multiply(value));
             }
         });
     }
@@ -34,7 +43,70 @@ public class AxisSpinner extends JSpinner {
      * Returns the current value as a Double
      */
     public Double getDouble() {
-        return (Double) getValue();
+        return getBigDecimal().doubleValue();
+    }
+    
+    /**
+     * Returns the current value at full precision
+     */
+    public BigDecimal getBigDecimal() {
+        return (BigDecimal) getValue();
     }
     
+    /**
+     * Number model which keeps its value as a BigDecimal, so that deep zoom
+     * coordinates survive the round trip through the spinner
+     */
+    private static class BigDecimalModel extends SpinnerNumberModel {
+        
+        private static final long serialVersionUID = 1L;
+        
+        public BigDecimalModel() {
+            super(BigDecimal.ZERO, LIMIT.negate(), LIMIT, STEP_RATIO);
+        }
+        
+        @Override
+        public void setValue(Object value) {
+            if (!(value instanceof Number)) {
+                throw new IllegalArgumentException("Illegal value: " + value);
+            }
+            BigDecimal exact = toBigDecimal((Number) value);
+            // Don't fire changes for numerically equal values of a different scale
+            BigDecimal current = (BigDecimal) getValue();
+            if (current == null || exact.compareTo(current) != 0) {
+                super.setValue(exact);
+            }
+        }
+        
+        @Override
+        public Object getNextValue() {
+            return increment(1);
+        }
+        
+        @Override
+        public Object getPreviousValue() {
+            return increment(-1);
+        }
+        
+        private BigDecimal increment(int direction) {
+            BigDecimal step = toBigDecimal(getStepSize()).multiply(BigDecimal.valueOf(direction));
+            BigDecimal next = ((BigDecimal) getValue()).add(step, MathContext.UNLIMITED);
+            
+            // Out of bounds values are null, as in the superclass
+            if (next.compareTo((BigDecimal) getMaximum()) > 0 || next.compareTo((BigDecimal) getMinimum()) < 0) {
+                return null;
+            }
+            return next;
+        }
+        
+        private static BigDecimal toBigDecimal(Number n) {
+            if (n instanceof BigDecimal) {
+                return (BigDecimal) n;
+            } else if (n instanceof Double || n instanceof Float) {
+                return BigDecimal.valueOf(n.doubleValue());
+            } else {
+                return BigDecimal.valueOf(n.longValue());
+            }
+        }
+    }
 }
@@ -0,0 +1,152 @@
+package com.cjwatts.fractalexplorer.main.util;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+/**
+ * Class representing arbitrary precision complex numbers - immutable
+ * 
+ * Operations are rounded to the given MathContext; see contextFor to size one
+ * from the resolution required.
+ */
+public final class BigComplex {
+    
+    public static final BigComplex ZERO = new BigComplex(BigDecimal.ZERO, BigDecimal.ZERO);
+    
+    // Digits kept beyond the resolution required, to absorb rounding
+    private static final int GUARD_DIGITS = 12;
+    
+    private final BigDecimal re;
+    private final BigDecimal im;
+    
+    public BigComplex(BigDecimal re, BigDecimal im) {
+        this.re = re;
+        this.im = im;
+    }
+    
+    public BigComplex(double re, double im) {
+        this(BigDecimal.valueOf(re), BigDecimal.valueOf(im));
+    }
+    
+    /**
+     * Create a MathContext precise enough to resolve differences of the given
+     * size between numbers of magnitude up to 10
+     * 
+     * @param resolution Smallest difference which must be representable, e.g. pixel spacing
+     */
+    public static MathContext contextFor(BigDecimal resolution) {
+        int digits = 2 + GUARD_DIGITS;
+        if (resolution.signum() != 0) {
+            // Digits after the decimal point needed to represent the resolution
+            int exponent = resolution.precision() - resolution.scale() - 1;
+            digits += Math.max(0, -exponent);
+        }
+        return new MathContext(digits);
+    }
+    
+    /**
+     * @return The complex sum when complex number d is added
+     * @param d
+     * @param mc
+     */
+    public BigComplex add(BigComplex d, MathContext mc) {
+        return new BigComplex(re.add(d.re, mc), im.add(d.im, mc));
+    }
+    
+    /**
+     * @return The complex difference when complex number d is subtracted
+     * @param d
+     * @param mc
+     */
+    public BigComplex subtract(BigComplex d, MathContext mc) {
+        return new BigComplex(re.subtract(d.re, mc), im.subtract(d.im, mc));
+    }
+    
+    /**
+     * @return The complex conjugate
+     */
+    public BigComplex complement() {
+        return new BigComplex(re, im.negate());
+    }
+    
+    /**
+     * @return Squared modulus of the complex number
+     * @param mc
+     */
+    public BigDecimal modulusSquared(MathContext mc) {
+        return re.multiply(re, mc).add(im.multiply(im, mc), mc);
+    }
+    
+    /**
+     * @return Square of the complex number
+     * @param mc
+     */
+    public BigComplex square(MathContext mc) {
+        // Real = a^2 - b^2
+        // Im = 2ab
+        BigDecimal rNew = re.multiply(re, mc).subtract(im.multiply(im, mc), mc);
+        BigDecimal iNew = re.multiply(im, mc).multiply(BigDecimal.valueOf(2), mc);
+        return new BigComplex(rNew, iNew);
+    }
+    
+    /**
+     * @return This number rounded to the given precision
+     * @param mc
+     */
+    public BigComplex round(MathContext mc) {
+        return new BigComplex(re.round(mc), im.round(mc));
+    }
+    
+    /**
+     * @return Nearest double precision equivalent
+     */
+    public Complex toComplex() {
+        return new Complex(re.doubleValue(), im.doubleValue());
+    }
+    
+    @Override
+    public String toString() {
+        String sign = im.signum() < 0 ? "" : "+";
+        return re + sign + im + "i";
+    }
+    
+    /**
+     * @return Real part of the complex number
+     */
+    public BigDecimal real() {
+        return re;
+    }
+    
+    /**
+     * @return Imaginary part of the complex number
+     */
+    public BigDecimal imaginary() {
+        return im;
+    }
+    
+    /*
+     * Numerically equal values are equal regardless of scale (non-Javadoc)
+     * 
+     * @see java.lang.Object#hashCode()
+     */
+    @Override
+    public int hashCode() {
+        final int prime = 31;
+        int result = 1;
+        result = prime * result + re.stripTrailingZeros().hashCode();
+        result = prime * result + im.stripTrailingZeros().hashCode();
+        return result;
+    }
+    
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null)
+            return false;
+        if (getClass() != obj.getClass())
+            return false;
+        BigComplex other = (BigComplex) obj;
+        return re.compareTo(other.re) == 0 && im.compareTo(other.im) == 0;
+    }
+}
@@ -0,0 +1,128 @@
+package com.cjwatts.fractalexplorer.main.util;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+
+/**
+ * Class representing arbitrary precision fixed-point complex numbers - immutable
+ * 
+ * Each part is held as a BigInteger scaled by 2^scale, so multiplication is a
+ * plain integer product and a shift. This is considerably faster than
+ * BigDecimal, which has to track and round a decimal scale on every operation.
+ */
+public final class BigFixedComplex {
+    
+    private final BigInteger re;
+    private final BigInteger im;
+    private final int scale;
+    
+    /**
+     * @param re Real part, scaled by 2^scale
+     * @param im Imaginary part, scaled by 2^scale
+     * @param scale Number of fraction bits
+     */
+    public BigFixedComplex(BigInteger re, BigInteger im, int scale) {
+        this.re = re;
+        this.im = im;
+        this.scale = scale;
+    }
+    
+    /**
+     * @return The fixed-point number nearest to c with the given number of fraction bits
+     * @param c
+     * @param scale
+     */
+    public static BigFixedComplex valueOf(BigComplex c, int scale) {
+        return new BigFixedComplex(toFixed(c.real(), scale), toFixed(c.imaginary(), scale), scale);
+    }
+    
+    /**
+     * @return The fixed-point number equal to re + i * im with the given number of fraction bits
+     * @param re
+     * @param im
+     * @param scale
+     */
+    public static BigFixedComplex valueOf(double re, double im, int scale) {
+        return new BigFixedComplex(toFixed(new BigDecimal(re), scale), toFixed(new BigDecimal(im), scale), scale);
+    }
+    
+    /**
+     * @return The nearest integer to d * 2^scale
+     * @param d
+     * @param scale
+     */
+    public static BigInteger toFixed(BigDecimal d, int scale) {
+        BigDecimal shifted = d.multiply(new BigDecimal(BigInteger.ONE.shiftLeft(scale)));
+        return shifted.setScale(0, RoundingMode.HALF_EVEN).toBigInteger();
+    }
+    
+    /**
+     * @return The complex sum when complex number d is added
+     * @param d Must have the same scale as this number
+     */
+    public BigFixedComplex add(BigFixedComplex d) {
+        return new BigFixedComplex(re.add(d.re), im.add(d.im), scale);
+    }
+    
+    /**
+     * @return The complex conjugate
+     */
+    public BigFixedComplex complement() {
+        return new BigFixedComplex(re, im.negate(), scale);
+    }
+    
+    /**
+     * @return The complex number made up of the absolute values of each part
+     */
+    public BigFixedComplex absolute() {
+        return new BigFixedComplex(re.abs(), im.abs(), scale);
+    }
+    
+    /**
+     * @return Square of the complex number
+     */
+    public BigFixedComplex square() {
+        // Real = a^2 - b^2 = (a + b)(a - b)
+        // Im = 2ab
+        BigInteger rNew = re.add(im).multiply(re.subtract(im)).shiftRight(scale);
+        BigInteger iNew = re.multiply(im).shiftRight(scale - 1);
+        return new BigFixedComplex(rNew, iNew, scale);
+    }
+    
+    /**
+     * @return Squared modulus of the complex number, to double precision
+     */
+    public double modulusSquared() {
+        double r = Math.scalb(re.doubleValue(), -scale);
+        double i = Math.scalb(im.doubleValue(), -scale);
+        return r * r + i * i;
+    }
+    
+    /**
+     * @return Exact decimal equivalent
+     */
+    public BigComplex toBigComplex() {
+        BigDecimal unit = BigDecimal.ONE.divide(new BigDecimal(BigInteger.ONE.shiftLeft(scale)));
+        return new BigComplex(new BigDecimal(re).multiply(unit), new BigDecimal(im).multiply(unit));
+    }
+    
+    /**
+     * @return Nearest double precision equivalent
+     */
+    public Complex toComplex() {
+        return new Complex(Math.scalb(re.doubleValue(), -scale), Math.scalb(im.doubleValue(), -scale));
+    }
+    
+    @Override
+    public String toString() {
+        return toBigComplex().toString();
+    }
+    
+    /**
+     * @return Number of fraction bits
+     */
+    public int getScale() {
+        return scale;
+    }
+}
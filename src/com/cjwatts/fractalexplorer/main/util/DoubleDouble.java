@@ -0,0 +1,201 @@
+package com.cjwatts.fractalexplorer.main.util;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+/**
+ * Class representing double-double numbers - immutable
+ * 
+ * The value is the unevaluated sum hi + lo of two doubles, with |lo| no more
+ * than half an ulp of hi, giving about 106 bits (32 digits) of precision.
+ * Arithmetic follows the sloppy variants of Bailey's QD library.
+ */
+public final class DoubleDouble {
+    
+    public static final DoubleDouble ZERO = new DoubleDouble(0, 0);
+    
+    // 2^27 + 1, for splitting a double into two non-overlapping halves
+    private static final double SPLITTER = 134217729.0;
+    
+    private final double hi;
+    private final double lo;
+    
+    public DoubleDouble(double value) {
+        this(value, 0);
+    }
+    
+    /**
+     * Create a double-double from two parts, which are renormalised
+     * @param hi
+     * @param lo
+     */
+    public DoubleDouble(double hi, double lo) {
+        double s = hi + lo;
+        this.lo = lo - (s - hi);
+        this.hi = s;
+    }
+    
+    /**
+     * @return The nearest double-double to the given decimal
+     * @param value
+     */
+    public static DoubleDouble valueOf(BigDecimal value) {
+        double hi = value.doubleValue();
+        double lo = value.subtract(new BigDecimal(hi)).doubleValue();
+        return new DoubleDouble(hi, lo);
+    }
+    
+    /**
+     * @return The sum when d is added
+     * @param d
+     */
+    public DoubleDouble add(DoubleDouble d) {
+        double s = hi + d.hi;
+        double e = twoSumError(hi, d.hi, s) + (lo + d.lo);
+        return new DoubleDouble(s, e);
+    }
+    
+    /**
+     * @return The difference when d is subtracted
+     * @param d
+     */
+    public DoubleDouble subtract(DoubleDouble d) {
+        return add(d.negate());
+    }
+    
+    /**
+     * @return The product when multiplied by d
+     * @param d
+     */
+    public DoubleDouble multiply(DoubleDouble d) {
+        double p = hi * d.hi;
+        double e = twoProductError(hi, d.hi, p) + (hi * d.lo + lo * d.hi);
+        return new DoubleDouble(p, e);
+    }
+    
+    /**
+     * @return The product when multiplied by d
+     * @param d
+     */
+    public DoubleDouble multiply(double d) {
+        double p = hi * d;
+        double e = twoProductError(hi, d, p) + lo * d;
+        return new DoubleDouble(p, e);
+    }
+    
+    /**
+     * @return The quotient when divided by d
+     * @param d
+     */
+    public DoubleDouble divide(double d) {
+        // Long division - estimate, then correct with the remainder
+        double q = hi / d;
+        double p = q * d;
+        double pe = twoProductError(q, d, p);
+        double s = hi - p;
+        double e = twoSumError(hi, -p, s);
+        e = e - pe + lo;
+        return new DoubleDouble(q, (s + e) / d);
+    }
+    
+    /**
+     * @return The negated number
+     */
+    public DoubleDouble negate() {
+        return new DoubleDouble(-hi, -lo);
+    }
+    
+    /**
+     * @return The exact decimal value
+     */
+    public BigDecimal toBigDecimal() {
+        return new BigDecimal(hi).add(new BigDecimal(lo));
+    }
+    
+    /**
+     * @return Nearest double precision equivalent
+     */
+    public double doubleValue() {
+        return hi;
+    }
+    
+    /**
+     * @return High order part
+     */
+    public double hi() {
+        return hi;
+    }
+    
+    /**
+     * @return Low order part, the remainder after hi
+     */
+    public double lo() {
+        return lo;
+    }
+    
+    @Override
+    public String toString() {
+        return toBigDecimal().round(new MathContext(32)).toString();
+    }
+    
+    /**
+     * Rounding error of the double sum s = a + b, so that a + b = s + error exactly
+     */
+    static double twoSumError(double a, double b, double s) {
+        double bb = s - a;
+        return (a - (s - bb)) + (b - bb);
+    }
+    
+    /**
+     * Rounding error of the double product p = a * b, so that a * b = p + error exactly
+     */
+    static double twoProductError(double a, double b, double p) {
+        // Dekker's product - split each factor into 26 bit halves whose
+        // products are exact
+        double t = SPLITTER * a;
+        double aHi = t - (t - a);
+        double aLo = a - aHi;
+        t = SPLITTER * b;
+        double bHi = t - (t - b);
+        double bLo = b - bHi;
+        return ((aHi * bHi - p) + aHi * bLo + aLo * bHi) + aLo * bLo;
+    }
+    
+    /*
+     * Generated hash code function (non-Javadoc)
+     * 
+     * @see java.lang.Object#hashCode()
+     */
+    @Override
+    public int hashCode() {
+        final int prime = 31;
+        int result = 1;
+        long temp;
+        temp = Double.doubleToLongBits(hi);
+        result = prime * result + (int) (temp ^ (temp >>> 32));
+        temp = Double.doubleToLongBits(lo);
+        result = prime * result + (int) (temp ^ (temp >>> 32));
+        return result;
+    }
+    
+    /*
+     * Generated equals function (non-Javadoc)
+     * 
+     * @see java.lang.Object#equals(java.lang.Object)
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null)
+            return false;
+        if (getClass() != obj.getClass())
+            return false;
+        DoubleDouble other = (DoubleDouble) obj;
+        if (Double.doubleToLongBits(hi) != Double.doubleToLongBits(other.hi))
+            return false;
+        if (Double.doubleToLongBits(lo) != Double.doubleToLongBits(other.lo))
+            return false;
+        return true;
+    }
+}
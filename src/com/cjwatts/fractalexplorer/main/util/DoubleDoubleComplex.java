@@ -0,0 +1,173 @@
+package com.cjwatts.fractalexplorer.main.util;
+
+/**
+ * Class representing double-double complex numbers - mutable
+ * 
+ * Unlike Complex, operations update this number in place and return it, so
+ * that the escape time kernels can iterate without allocating.
+ */
+public final class DoubleDoubleComplex {
+    
+    private double reHi, reLo;
+    private double imHi, imLo;
+    
+    public DoubleDoubleComplex() {
+    }
+    
+    public DoubleDoubleComplex(double re, double im) {
+        set(re, 0, im, 0);
+    }
+    
+    public DoubleDoubleComplex(DoubleDouble re, DoubleDouble im) {
+        set(re.hi(), re.lo(), im.hi(), im.lo());
+    }
+    
+    public DoubleDoubleComplex(DoubleDoubleComplex c) {
+        set(c);
+    }
+    
+    /**
+     * Set this number from its parts, which must already be normalised
+     * @return This number
+     */
+    public DoubleDoubleComplex set(double reHi, double reLo, double imHi, double imLo) {
+        this.reHi = reHi;
+        this.reLo = reLo;
+        this.imHi = imHi;
+        this.imLo = imLo;
+        return this;
+    }
+    
+    /**
+     * Set this number to the value of c
+     * @return This number
+     */
+    public DoubleDoubleComplex set(DoubleDoubleComplex c) {
+        return set(c.reHi, c.reLo, c.imHi, c.imLo);
+    }
+    
+    /**
+     * Add complex number d to this number
+     * @return This number
+     * @param d
+     */
+    public DoubleDoubleComplex add(DoubleDoubleComplex d) {
+        double s = reHi + d.reHi;
+        double e = DoubleDouble.twoSumError(reHi, d.reHi, s) + (reLo + d.reLo);
+        reHi = s + e;
+        reLo = e - (reHi - s);
+        
+        s = imHi + d.imHi;
+        e = DoubleDouble.twoSumError(imHi, d.imHi, s) + (imLo + d.imLo);
+        imHi = s + e;
+        imLo = e - (imHi - s);
+        return this;
+    }
+    
+    /**
+     * Replace this number with its square
+     * @return This number
+     */
+    public DoubleDoubleComplex square() {
+        // Real = a^2 - b^2
+        // Im = 2ab
+        double p = reHi * reHi;
+        double e = DoubleDouble.twoProductError(reHi, reHi, p) + 2 * (reHi * reLo);
+        double aaHi = p + e;
+        double aaLo = e - (aaHi - p);
+        
+        p = imHi * imHi;
+        e = DoubleDouble.twoProductError(imHi, imHi, p) + 2 * (imHi * imLo);
+        double bbHi = p + e;
+        double bbLo = e - (bbHi - p);
+        
+        p = reHi * imHi;
+        e = DoubleDouble.twoProductError(reHi, imHi, p) + (reHi * imLo + reLo * imHi);
+        double abHi = p + e;
+        double abLo = e - (abHi - p);
+        
+        double s = aaHi - bbHi;
+        e = DoubleDouble.twoSumError(aaHi, -bbHi, s) + (aaLo - bbLo);
+        reHi = s + e;
+        reLo = e - (reHi - s);
+        
+        // Doubling is exact
+        imHi = 2 * abHi;
+        imLo = 2 * abLo;
+        return this;
+    }
+    
+    /**
+     * Replace this number with its complex conjugate
+     * @return This number
+     */
+    public DoubleDoubleComplex complement() {
+        imHi = -imHi;
+        imLo = -imLo;
+        return this;
+    }
+    
+    /**
+     * Replace both parts of this number with their absolute values
+     * @return This number
+     */
+    public DoubleDoubleComplex absolute() {
+        // The sign of a normalised double-double is the sign of its high part
+        if (reHi < 0) {
+            reHi = -reHi;
+            reLo = -reLo;
+        }
+        if (imHi < 0) {
+            imHi = -imHi;
+            imLo = -imLo;
+        }
+        return this;
+    }
+    
+    /**
+     * Checks whether both parts of this number are within the given distance
+     * of another
+     * 
+     * @param c
+     * @param tolerance
+     */
+    public boolean isNear(DoubleDoubleComplex c, double tolerance) {
+        return Math.abs((reHi - c.reHi) + (reLo - c.reLo)) < tolerance
+                && Math.abs((imHi - c.imHi) + (imLo - c.imLo)) < tolerance;
+    }
+    
+    /**
+     * @return Squared modulus of the complex number, to double precision
+     */
+    public double modulusSquared() {
+        return reHi * reHi + imHi * imHi;
+    }
+    
+    /**
+     * @return Nearest double precision equivalent
+     */
+    public Complex toComplex() {
+        return new Complex(reHi, imHi);
+    }
+    
+    @Override
+    public String toString() {
+        DoubleDouble im = imaginary();
+        String sign = imHi < 0 ? "" : "+";
+        return real() + sign + im + "i";
+    }
+    
+    /**
+     * @return Real part of the complex number
+     */
+    public DoubleDouble real() {
+        return new DoubleDouble(reHi, reLo);
+    }
+    
+    /**
+     * @return Imaginary part of the complex number
+     */
+    public DoubleDouble imaginary() {
+        return new DoubleDouble(imHi, imLo);
+    }
+}
@@ -0,0 +1,288 @@
+package com.cjwatts.fractalexplorer.main.util;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * Class representing 128-bit fixed-point complex numbers - mutable
+ * 
+ * Each part is a two's complement 128-bit integer held as two longs (the low
+ * word unsigned) and scaled by 2^FRACTION_BITS, leaving 7 integer bits and a
+ * sign. As with DoubleDoubleComplex, operations update this number in place
+ * so that the escape time kernels can iterate without allocating.
+ */
+public final class Fixed128Complex {
+    
+    /**
+     * Number of fraction bits in each part
+     */
+    public static final int FRACTION_BITS = 120;
+    
+    /**
+     * Largest squared escape radius the kernels can use - squaring anything
+     * inside it, then adding a point on screen, must stay below 128
+     */
+    public static final double MAX_ESCAPE_SQUARED = 64;
+    
+    // Fraction bits held in the high word
+    private static final int HIGH_FRACTION_BITS = FRACTION_BITS - 64;
+    
+    private long reHi, reLo;
+    private long imHi, imLo;
+    
+    // Result of the last unsigned multiply
+    private long productHi, productLo;
+    
+    public Fixed128Complex() {
+    }
+    
+    public Fixed128Complex(BigDecimal re, BigDecimal im) {
+        BigInteger r = BigFixedComplex.toFixed(re, FRACTION_BITS);
+        BigInteger i = BigFixedComplex.toFixed(im, FRACTION_BITS);
+        set(r.shiftRight(64).longValue(), r.longValue(), i.shiftRight(64).longValue(), i.longValue());
+    }
+    
+    public Fixed128Complex(double re, double im) {
+        this(new BigDecimal(re), new BigDecimal(im));
+    }
+    
+    public Fixed128Complex(Fixed128Complex c) {
+        set(c);
+    }
+    
+    /**
+     * Set this number from the high and low words of each part
+     * @return This number
+     */
+    public Fixed128Complex set(long reHi, long reLo, long imHi, long imLo) {
+        this.reHi = reHi;
+        this.reLo = reLo;
+        this.imHi = imHi;
+        this.imLo = imLo;
+        return this;
+    }
+    
+    /**
+     * Set this number to the value of c
+     * @return This number
+     */
+    public Fixed128Complex set(Fixed128Complex c) {
+        return set(c.reHi, c.reLo, c.imHi, c.imLo);
+    }
+    
+    /**
+     * Add complex number d to this number
+     * @return This number
+     * @param d
+     */
+    public Fixed128Complex add(Fixed128Complex d) {
+        long lo = reLo + d.reLo;
+        reHi = reHi + d.reHi + carry(lo, reLo);
+        reLo = lo;
+        
+        lo = imLo + d.imLo;
+        imHi = imHi + d.imHi + carry(lo, imLo);
+        imLo = lo;
+        return this;
+    }
+    
+    /**
+     * Replace this number with its square
+     * @return This number
+     */
+    public Fixed128Complex square() {
+        // Real = a^2 - b^2
+        // Im = 2ab
+        // Multiply magnitudes, then put the sign back
+        boolean reNegative = reHi < 0;
+        boolean imNegative = imHi < 0;
+        long aHi = reNegative ? ~reHi + (reLo == 0 ? 1 : 0) : reHi;
+        long aLo = reNegative ? -reLo : reLo;
+        long bHi = imNegative ? ~imHi + (imLo == 0 ? 1 : 0) : imHi;
+        long bLo = imNegative ? -imLo : imLo;
+        
+        multiply(aHi, aLo, bHi, bLo);
+        // Doubling is a one bit shift
+        long abHi = (productHi << 1) | (productLo >>> 63);
+        long abLo = productLo << 1;
+        if (reNegative != imNegative) {
+            abHi = ~abHi + (abLo == 0 ? 1 : 0);
+            abLo = -abLo;
+        }
+        
+        square(bHi, bLo);
+        long bbHi = productHi;
+        long bbLo = productLo;
+        square(aHi, aLo);
+        
+        reLo = productLo - bbLo;
+        reHi = productHi - bbHi - carry(productLo, reLo);
+        imHi = abHi;
+        imLo = abLo;
+        return this;
+    }
+    
+    /**
+     * Replace this number with its complex conjugate
+     * @return This number
+     */
+    public Fixed128Complex complement() {
+        imHi = ~imHi + (imLo == 0 ? 1 : 0);
+        imLo = -imLo;
+        return this;
+    }
+    
+    /**
+     * Replace both parts of this number with their absolute values
+     * @return This number
+     */
+    public Fixed128Complex absolute() {
+        if (reHi < 0) {
+            reHi = ~reHi + (reLo == 0 ? 1 : 0);
+            reLo = -reLo;
+        }
+        if (imHi < 0) {
+            imHi = ~imHi + (imLo == 0 ? 1 : 0);
+            imLo = -imLo;
+        }
+        return this;
+    }
+    
+    /**
+     * Checks whether both parts of this number are within the given distance
+     * of another
+     * 
+     * @param c
+     * @param tolerance
+     */
+    public boolean isNear(Fixed128Complex c, double tolerance) {
+        long lo = reLo - c.reLo;
+        double re = toDouble(reHi - c.reHi - carry(reLo, lo), lo);
+        lo = imLo - c.imLo;
+        double im = toDouble(imHi - c.imHi - carry(imLo, lo), lo);
+        return Math.abs(re) < tolerance && Math.abs(im) < tolerance;
+    }
+    
+    /**
+     * @return Squared modulus of the complex number, to double precision
+     */
+    public double modulusSquared() {
+        double re = toDouble(reHi, reLo);
+        double im = toDouble(imHi, imLo);
+        return re * re + im * im;
+    }
+    
+    /**
+     * @return Exact decimal equivalent
+     */
+    public BigComplex toBigComplex() {
+        BigDecimal unit = BigDecimal.ONE.divide(new BigDecimal(BigInteger.ONE.shiftLeft(FRACTION_BITS)));
+        return new BigComplex(
+                new BigDecimal(toBigInteger(reHi, reLo)).multiply(unit),
+                new BigDecimal(toBigInteger(imHi, imLo)).multiply(unit));
+    }
+    
+    /**
+     * @return Nearest double precision equivalent
+     */
+    public Complex toComplex() {
+        return new Complex(toDouble(reHi, reLo), toDouble(imHi, imLo));
+    }
+    
+    @Override
+    public String toString() {
+        return toBigComplex().toString();
+    }
+    
+    /**
+     * Unsigned 128 x 128 bit multiply of two non-negative numbers, keeping
+     * the 128 bits either side of the binary point in productHi and productLo.
+     * The bits below are truncated, so the result is at most one unit in the
+     * last place below the exact product.
+     */
+    private void multiply(long aHi, long aLo, long bHi, long bLo) {
+        // Partial products of the 64 bit words. Only the high word of the
+        // product of the low words reaches the result - its top bits land
+        // in the last places - and the bottom word is below it altogether.
+        long p0Hi = unsignedMultiplyHigh(aLo, bLo);
+        long p1Lo = aHi * bLo;
+        long p1Hi = unsignedMultiplyHigh(aHi, bLo);
+        long p2Lo = aLo * bHi;
+        long p2Hi = unsignedMultiplyHigh(aLo, bHi);
+        long p3Lo = aHi * bHi;
+        long p3Hi = Math.multiplyHigh(aHi, bHi);
+        
+        // Sum the 256 bit product one word at a time
+        long w1 = p0Hi + p1Lo;
+        long c1 = carry(w1, p0Hi);
+        long t = w1 + p2Lo;
+        c1 += carry(t, w1);
+        w1 = t;
+        long w2 = p1Hi + p2Hi;
+        long c2 = carry(w2, p1Hi);
+        t = w2 + p3Lo;
+        c2 += carry(t, w2);
+        w2 = t + c1;
+        c2 += carry(w2, t);
+        long w3 = p3Hi + c2;
+        
+        shiftProduct(w1, w2, w3);
+    }
+    
+    /**
+     * As multiply, for the square of a non-negative number
+     */
+    private void square(long aHi, long aLo) {
+        // Both cross products are the same, so calculate one and double it
+        long p0Hi = unsignedMultiplyHigh(aLo, aLo);
+        long p1Lo = aHi * aLo;
+        long p1Hi = unsignedMultiplyHigh(aHi, aLo);
+        long p3Lo = aHi * aHi;
+        long p3Hi = Math.multiplyHigh(aHi, aHi);
+        
+        long w1 = p0Hi + (p1Lo << 1);
+        long c1 = carry(w1, p0Hi);
+        long t = (p1Hi << 1) | (p1Lo >>> 63);
+        long w2 = t + p3Lo;
+        long c2 = carry(w2, t);
+        t = w2 + c1;
+        c2 += carry(t, w2);
+        w2 = t;
+        long w3 = p3Hi + c2;
+        
+        shiftProduct(w1, w2, w3);
+    }
+    
+    /**
+     * Shift the middle words of a product back down by the fraction bits
+     */
+    private void shiftProduct(long w1, long w2, long w3) {
+        productLo = (w1 >>> HIGH_FRACTION_BITS) | (w2 << (64 - HIGH_FRACTION_BITS));
+        productHi = (w2 >>> HIGH_FRACTION_BITS) | (w3 << (64 - HIGH_FRACTION_BITS));
+    }
+    
+    /**
+     * High word of the unsigned product of a and b
+     */
+    private static long unsignedMultiplyHigh(long a, long b) {
+        // Correct the signed product for the top bit of each factor
+        return Math.multiplyHigh(a, b) + ((a >> 63) & b) + ((b >> 63) & a);
+    }
+    
+    /**
+     * @return 1 if the unsigned addition which gave sum from addend overflowed
+     */
+    private static long carry(long sum, long addend) {
+        return Long.compareUnsigned(sum, addend) < 0 ? 1 : 0;
+    }
+    
+    private static double toDouble(long hi, long lo) {
+        // The high word carries the sign, the low word is unsigned
+        return Math.scalb((double) hi, -HIGH_FRACTION_BITS) + Math.scalb((double) (lo >>> 1), 1 - FRACTION_BITS);
+    }
+    
+    private static BigInteger toBigInteger(long hi, long lo) {
+        BigInteger low = BigInteger.valueOf(lo >>> 1).shiftLeft(1).or(BigInteger.valueOf(lo & 1));
+        return BigInteger.valueOf(hi).shiftLeft(64).or(low);
+    }
+}
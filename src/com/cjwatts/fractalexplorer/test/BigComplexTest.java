@@ -0,0 +1,62 @@
+package com.cjwatts.fractalexplorer.test;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+import com.cjwatts.fractalexplorer.main.util.BigComplex;
+
+import junit.framework.TestCase;
+
+public class BigComplexTest extends TestCase {
+    
+    private static final MathContext MC = new MathContext(40);
+    
+    public void testContextFor() {
+        assertEquals(14, BigComplex.contextFor(BigDecimal.ZERO).getPrecision());
+        assertEquals(15, BigComplex.contextFor(new BigDecimal("0.5")).getPrecision());
+        assertEquals(14 + 30, BigComplex.contextFor(new BigDecimal("1e-30")).getPrecision());
+        assertEquals(14 + 30, BigComplex.contextFor(new BigDecimal("2.5e-30")).getPrecision());
+    }
+    
+    public void testAdd() {
+        BigComplex c = new BigComplex(new BigDecimal("3"), new BigDecimal("2"));
+        BigComplex d = new BigComplex(new BigDecimal("15.354"), new BigDecimal("-2.77"));
+        assertEquals("18.354-0.77i", c.add(d, MC).toString());
+    }
+    
+    public void testSubtract() {
+        BigComplex c = new BigComplex(new BigDecimal("1.00000000000000000000000000000001"), BigDecimal.ONE);
+        BigComplex d = new BigComplex(BigDecimal.ONE, new BigDecimal("1e-40"));
+        BigComplex e = c.subtract(d, MC);
+        assertEquals(0, new BigDecimal("1e-32").compareTo(e.real()));
+        assertEquals(0, new BigDecimal("0.9999999999999999999999999999999999999999").compareTo(e.imaginary()));
+    }
+    
+    public void testComplement() {
+        BigComplex c = new BigComplex(new BigDecimal("3.0"), new BigDecimal("2.0"));
+        assertEquals("3.0-2.0i", c.complement().toString());
+    }
+    
+    public void testSquare() {
+        BigComplex c = new BigComplex(new BigDecimal("15.354"), new BigDecimal("-2.77"));
+        assertEquals(new BigComplex(new BigDecimal("228.072416"), new BigDecimal("-85.06116")), c.square(MC));
+        
+        // Rounded to the context, not to double precision
+        BigDecimal a = new BigDecimal("1.000000000000000000000000000001");
+        BigComplex square = new BigComplex(a, BigDecimal.ZERO).square(MC);
+        assertEquals(0, a.multiply(a).round(MC).compareTo(square.real()));
+    }
+    
+    public void testModulusSquared() {
+        BigComplex c = new BigComplex(new BigDecimal("1.000011"), new BigDecimal("-19.76"));
+        assertEquals(0, new BigDecimal("391.457622000121").compareTo(c.modulusSquared(MC)));
+    }
+    
+    public void testEquals() {
+        BigComplex c = new BigComplex(new BigDecimal("1.0"), new BigDecimal("-2"));
+        BigComplex d = new BigComplex(new BigDecimal("1.00"), new BigDecimal("-2.000"));
+        assertEquals(c, d);
+        assertEquals(c.hashCode(), d.hashCode());
+        assertFalse(c.equals(new BigComplex(new BigDecimal("1.01"), new BigDecimal("-2"))));
+    }
+}
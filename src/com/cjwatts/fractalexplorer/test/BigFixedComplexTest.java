@@ -0,0 +1,81 @@
+package com.cjwatts.fractalexplorer.test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Random;
+
+import com.cjwatts.fractalexplorer.main.util.BigComplex;
+import com.cjwatts.fractalexplorer.main.util.BigFixedComplex;
+
+import junit.framework.TestCase;
+
+public class BigFixedComplexTest extends TestCase {
+    
+    private static final int SCALE = 200;
+    
+    // One unit in the last place
+    private static final BigDecimal ULP = BigDecimal.ONE.divide(new BigDecimal(BigInteger.ONE.shiftLeft(SCALE)));
+    
+    public void testToFixed() {
+        assertEquals(BigInteger.ONE.shiftLeft(SCALE), BigFixedComplex.toFixed(BigDecimal.ONE, SCALE));
+        assertEquals(BigInteger.valueOf(-3), BigFixedComplex.toFixed(new BigDecimal("-0.75"), 2));
+        // Rounds to nearest, ties to even
+        assertEquals(BigInteger.valueOf(2), BigFixedComplex.toFixed(new BigDecimal("0.625"), 2));
+        assertEquals(BigInteger.valueOf(3), BigFixedComplex.toFixed(new BigDecimal("0.7"), 2));
+    }
+    
+    public void testAdd() {
+        BigFixedComplex c = BigFixedComplex.valueOf(3, 2, SCALE);
+        BigFixedComplex d = BigFixedComplex.valueOf(0.5, -2.75, SCALE);
+        assertEquals(new BigComplex(new BigDecimal("3.5"), new BigDecimal("-0.75")), c.add(d).toBigComplex());
+    }
+    
+    public void testComplement() {
+        BigFixedComplex c = BigFixedComplex.valueOf(3, 2, SCALE).complement();
+        assertEquals(new BigComplex(new BigDecimal(3), new BigDecimal(-2)), c.toBigComplex());
+    }
+    
+    public void testAbsolute() {
+        BigFixedComplex c = BigFixedComplex.valueOf(-3, -2, SCALE).absolute();
+        assertEquals(new BigComplex(new BigDecimal(3), new BigDecimal(2)), c.toBigComplex());
+    }
+    
+    public void testSquare() {
+        BigFixedComplex c = BigFixedComplex.valueOf(1.5, -0.25, SCALE).square();
+        assertEquals(new BigComplex(new BigDecimal("2.1875"), new BigDecimal("-0.75")), c.toBigComplex());
+        
+        Random random = new Random(1);
+        for (int i = 0; i < 1000; i++) {
+            BigFixedComplex f = new BigFixedComplex(random(random), random(random), SCALE);
+            BigComplex exact = f.toBigComplex();
+            BigDecimal re = exact.real(), im = exact.imaginary();
+            BigComplex square = f.square().toBigComplex();
+            // Each part is truncated once, so is at most one unit below the exact value
+            assertWithinUlp(re.multiply(re).subtract(im.multiply(im)), square.real());
+            assertWithinUlp(re.multiply(im).multiply(BigDecimal.valueOf(2)), square.imaginary());
+        }
+    }
+    
+    public void testModulusSquared() {
+        BigFixedComplex c = BigFixedComplex.valueOf(1.000011, -19.76, SCALE);
+        assertEquals(391.4576220001211, c.modulusSquared(), 1e-12);
+    }
+    
+    public void testToComplex() {
+        BigFixedComplex c = BigFixedComplex.valueOf(15.354, -2.77, SCALE);
+        assertEquals("15.354-2.77i", c.toComplex().toString());
+        assertEquals(SCALE, c.getScale());
+    }
+    
+    /**
+     * @return A fixed-point number in (-2, 2) using all of its bits
+     */
+    private static BigInteger random(Random random) {
+        return new BigInteger(SCALE + 2, random).subtract(BigInteger.ONE.shiftLeft(SCALE + 1));
+    }
+    
+    private static void assertWithinUlp(BigDecimal expected, BigDecimal actual) {
+        BigDecimal error = expected.subtract(actual);
+        assertTrue(expected + " but was " + actual, error.signum() >= 0 && error.compareTo(ULP) < 0);
+    }
+}
@@ -0,0 +1,156 @@
+package com.cjwatts.fractalexplorer.test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+
+import com.cjwatts.fractalexplorer.main.io.DiskTileCache;
+import com.cjwatts.fractalexplorer.main.panels.TileCache;
+
+import junit.framework.TestCase;
+
+public class DiskTileCacheTest extends TestCase {
+    
+    private static final int TILE_LENGTH = TileCache.TILE_SIZE * TileCache.TILE_SIZE;
+    
+    private File directory;
+    
+    @Override
+    protected void setUp() throws IOException {
+        directory = File.createTempFile("tiles", "");
+        directory.delete();
+    }
+    
+    @Override
+    protected void tearDown() {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+    
+    public void testPutAndGet() throws IOException {
+        DiskTileCache cache = new DiskTileCache(directory, 0);
+        cache.put("a", "t", tile(1, TILE_LENGTH));
+        assertEquals(1, cache.getTileCount());
+        assertTrue(Arrays.equals(tile(1, TILE_LENGTH), cache.get("a")));
+        assertNull(cache.get("b"));
+        
+        // A tile knowing no more samples is not kept
+        cache.put("a", "t", tile(2, TILE_LENGTH));
+        assertEquals(1.0, cache.get("a")[0], 0);
+        cache.put("b", "t", tile(3, 0));
+        assertNull(cache.get("b"));
+        cache.close();
+    }
+    
+    public void testReopen() throws IOException {
+        DiskTileCache cache = new DiskTileCache(directory, 0);
+        cache.put("a", "t", tile(1, 10));
+        cache.put("a", "t", tile(2, 20));
+        cache.put("b", "t", tile(3, TILE_LENGTH));
+        cache.close();
+        
+        // The later record of a tile wins
+        cache = new DiskTileCache(directory, 0);
+        assertEquals(2, cache.getTileCount());
+        assertTrue(Arrays.equals(tile(2, 20), cache.get("a")));
+        assertTrue(Arrays.equals(tile(3, TILE_LENGTH), cache.get("b")));
+        cache.close();
+    }
+    
+    public void testLocked() throws IOException {
+        DiskTileCache cache = new DiskTileCache(directory, 0);
+        try {
+            new DiskTileCache(directory, 0);
+            fail("Opened a directory already in use");
+        } catch (IOException expected) {
+        }
+        cache.close();
+        new DiskTileCache(directory, 0).close();
+    }
+    
+    public void testTruncatedRecord() throws IOException {
+        DiskTileCache cache = new DiskTileCache(directory, 0);
+        cache.put("a", "t", tile(1, TILE_LENGTH));
+        cache.put("b", "t", tile(2, TILE_LENGTH));
+        cache.put("c", "t", tile(3, TILE_LENGTH));
+        cache.close();
+        
+        // Cut the last record short, as a crash part way through writing it would
+        File segment = new File(directory, "segment-000001.dat");
+        long record = 12 + 1 + 1 + TILE_LENGTH * 8 + 8;
+        RandomAccessFile file = new RandomAccessFile(segment, "rw");
+        file.seek(3 * record - 1000);
+        file.write(new byte[1000]);
+        file.close();
+        
+        cache = new DiskTileCache(directory, 0);
+        assertEquals(2, cache.getTileCount());
+        assertTrue(Arrays.equals(tile(2, TILE_LENGTH), cache.get("b")));
+        assertNull(cache.get("c"));
+        
+        // New records go in a fresh segment, so survive the next reopen
+        cache.put("c", "t", tile(4, TILE_LENGTH));
+        cache.close();
+        assertTrue(new File(directory, "segment-000002.dat").exists());
+        cache = new DiskTileCache(directory, 0);
+        assertEquals(3, cache.getTileCount());
+        assertTrue(Arrays.equals(tile(4, TILE_LENGTH), cache.get("c")));
+        cache.close();
+    }
+    
+    public void testEviction() throws IOException {
+        // At least two segments are always kept
+        DiskTileCache cache = new DiskTileCache(directory, 0);
+        int perSegment = DiskTileCache.SEGMENT_SIZE / (12 + 1 + 4 + TILE_LENGTH * 8 + 8);
+        double[] tile = tile(1, TILE_LENGTH);
+        for (int i = 0; i < 2 * perSegment + 1; i++) {
+            cache.put(String.format("%04d", i), "t", tile);
+        }
+        assertEquals(2L * DiskTileCache.SEGMENT_SIZE, cache.getSize());
+        // The first segment's tiles have gone, along with its file
+        assertNull(cache.get("0000"));
+        assertNull(cache.get(String.format("%04d", perSegment - 1)));
+        assertNotNull(cache.get(String.format("%04d", perSegment)));
+        assertNotNull(cache.get(String.format("%04d", 2 * perSegment)));
+        assertEquals(perSegment + 1, cache.getTileCount());
+        assertFalse(new File(directory, "segment-000001.dat").exists());
+        cache.close();
+    }
+    
+    public void testDrop() throws IOException {
+        DiskTileCache cache = new DiskTileCache(directory, 0);
+        cache.put("a", "good", tile(1, TILE_LENGTH));
+        cache.put("b", "bad", tile(2, TILE_LENGTH));
+        assertEquals(0, cache.drop("other"));
+        
+        // The whole segment holding the bad tile goes
+        assertEquals(1, cache.drop("bad"));
+        assertEquals(0, cache.getTileCount());
+        assertEquals(0, cache.drop("bad"));
+        
+        // Still usable, and the dropped tiles don't come back
+        cache.put("c", "good", tile(3, TILE_LENGTH));
+        cache.close();
+        cache = new DiskTileCache(directory, 0);
+        assertEquals(1, cache.getTileCount());
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
+        cache.close();
+    }
+    
+    /**
+     * @return A tile with the given number of samples known
+     */
+    private static double[] tile(double escape, int known) {
+        double[] tile = new double[TILE_LENGTH];
+        Arrays.fill(tile, Double.NaN);
+        Arrays.fill(tile, 0, known, escape);
+        return tile;
+    }
+}
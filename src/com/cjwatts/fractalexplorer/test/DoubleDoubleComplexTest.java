@@ -0,0 +1,77 @@
+package com.cjwatts.fractalexplorer.test;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import com.cjwatts.fractalexplorer.main.util.DoubleDouble;
+import com.cjwatts.fractalexplorer.main.util.DoubleDoubleComplex;
+
+import junit.framework.TestCase;
+
+public class DoubleDoubleComplexTest extends TestCase {
+    
+    // Double-double keeps about 106 bits, so allow a few bits for rounding
+    private static final double RELATIVE_ERROR = 0x1p-100;
+    
+    public void testAdd() {
+        Random random = new Random(1);
+        for (int i = 0; i < 1000; i++) {
+            DoubleDouble a = random(random), b = random(random);
+            DoubleDouble c = random(random), d = random(random);
+            DoubleDoubleComplex sum = new DoubleDoubleComplex(a, b).add(new DoubleDoubleComplex(c, d));
+            assertClose(a.toBigDecimal().add(c.toBigDecimal()), sum.real(), BigDecimal.ONE);
+            assertClose(b.toBigDecimal().add(d.toBigDecimal()), sum.imaginary(), BigDecimal.ONE);
+        }
+    }
+    
+    public void testSquare() {
+        DoubleDoubleComplex c = new DoubleDoubleComplex(15.354, -2.77).square();
+        assertEquals(228.072416, c.real().doubleValue(), 1e-12);
+        assertEquals(-85.06116, c.imaginary().doubleValue(), 1e-12);
+        
+        Random random = new Random(2);
+        for (int i = 0; i < 1000; i++) {
+            DoubleDouble a = random(random), b = random(random);
+            BigDecimal re = a.toBigDecimal(), im = b.toBigDecimal();
+            DoubleDoubleComplex square = new DoubleDoubleComplex(a, b).square();
+            // Cancellation in a^2 - b^2 is only good relative to the modulus
+            BigDecimal modulus = re.multiply(re).add(im.multiply(im));
+            assertClose(re.multiply(re).subtract(im.multiply(im)), square.real(), modulus);
+            assertClose(re.multiply(im).multiply(BigDecimal.valueOf(2)), square.imaginary(), modulus);
+        }
+    }
+    
+    public void testComplement() {
+        DoubleDoubleComplex c = new DoubleDoubleComplex(new DoubleDouble(3, 1e-20), new DoubleDouble(2, 1e-20)).complement();
+        assertEquals(new DoubleDouble(3, 1e-20), c.real());
+        assertEquals(new DoubleDouble(-2, -1e-20), c.imaginary());
+    }
+    
+    public void testAbsolute() {
+        DoubleDoubleComplex c = new DoubleDoubleComplex(new DoubleDouble(-3, 1e-20), new DoubleDouble(-2, -1e-20)).absolute();
+        assertEquals(new DoubleDouble(3, -1e-20), c.real());
+        assertEquals(new DoubleDouble(2, 1e-20), c.imaginary());
+    }
+    
+    public void testIsNear() {
+        DoubleDoubleComplex c = new DoubleDoubleComplex(new DoubleDouble(1, 1e-25), new DoubleDouble(1, 0));
+        DoubleDoubleComplex d = new DoubleDoubleComplex(new DoubleDouble(1, 3e-25), new DoubleDouble(1, 0));
+        assertTrue(c.isNear(d, 1e-24));
+        assertFalse(c.isNear(d, 1e-25));
+    }
+    
+    public void testModulusSquared() {
+        DoubleDoubleComplex c = new DoubleDoubleComplex(1.000011, -19.76);
+        assertEquals(391.4576220001211, c.modulusSquared(), 1e-12);
+    }
+    
+    private static DoubleDouble random(Random random) {
+        double hi = 4 * random.nextDouble() - 2;
+        return new DoubleDouble(hi, Math.ulp(hi) * (random.nextDouble() - 0.5));
+    }
+    
+    private static void assertClose(BigDecimal expected, DoubleDouble actual, BigDecimal scale) {
+        double error = actual.toBigDecimal().subtract(expected).abs().doubleValue();
+        assertTrue(expected + " but was " + actual, error <= scale.abs().doubleValue() * RELATIVE_ERROR);
+    }
+}
@@ -0,0 +1,109 @@
+package com.cjwatts.fractalexplorer.test;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Random;
+
+import com.cjwatts.fractalexplorer.main.util.DoubleDouble;
+
+import junit.framework.TestCase;
+
+public class DoubleDoubleTest extends TestCase {
+    
+    // Double-double keeps about 106 bits, so allow a few bits for rounding
+    private static final double RELATIVE_ERROR = 0x1p-100;
+    
+    public void testValueOf() {
+        BigDecimal tenth = new BigDecimal("0.1");
+        DoubleDouble d = DoubleDouble.valueOf(tenth);
+        assertEquals(0.1, d.hi(), 0);
+        assertClose(tenth, d, tenth);
+    }
+    
+    public void testToString() {
+        DoubleDouble d = new DoubleDouble(1).add(new DoubleDouble(0x1p-70));
+        assertEquals("1.0000000000000000000008470329473", d.toString());
+        assertEquals("0.10000000000000000000000000000000", DoubleDouble.valueOf(new BigDecimal("0.1")).toString());
+    }
+    
+    public void testAdd() {
+        // Beyond double precision, the small part is lost
+        DoubleDouble d = new DoubleDouble(1).add(new DoubleDouble(1e-20));
+        assertEquals(1.0, d.hi(), 0);
+        assertEquals(1e-20, d.lo(), 0);
+        
+        Random random = new Random(1);
+        for (int i = 0; i < 1000; i++) {
+            DoubleDouble a = random(random);
+            DoubleDouble b = random(random);
+            BigDecimal expected = a.toBigDecimal().add(b.toBigDecimal());
+            assertClose(expected, a.add(b), a.toBigDecimal().abs().max(b.toBigDecimal().abs()));
+        }
+    }
+    
+    public void testSubtract() {
+        DoubleDouble a = DoubleDouble.valueOf(new BigDecimal("1.00000000000000000000000001"));
+        DoubleDouble d = a.subtract(new DoubleDouble(1));
+        assertClose(new BigDecimal("1e-26"), d, BigDecimal.ONE);
+        
+        Random random = new Random(2);
+        for (int i = 0; i < 1000; i++) {
+            DoubleDouble x = random(random);
+            DoubleDouble y = random(random);
+            BigDecimal expected = x.toBigDecimal().subtract(y.toBigDecimal());
+            assertClose(expected, x.subtract(y), x.toBigDecimal().abs().max(y.toBigDecimal().abs()));
+        }
+    }
+    
+    public void testMultiply() {
+        Random random = new Random(3);
+        for (int i = 0; i < 1000; i++) {
+            DoubleDouble a = random(random);
+            DoubleDouble b = random(random);
+            BigDecimal expected = a.toBigDecimal().multiply(b.toBigDecimal());
+            assertClose(expected, a.multiply(b), expected);
+            
+            double c = random.nextDouble() - 0.5;
+            expected = a.toBigDecimal().multiply(new BigDecimal(c));
+            assertClose(expected, a.multiply(c), expected);
+        }
+    }
+    
+    public void testDivide() {
+        DoubleDouble third = new DoubleDouble(1).divide(3);
+        BigDecimal expected = BigDecimal.ONE.divide(new BigDecimal(3), MathContext.DECIMAL128);
+        assertClose(expected, third, expected);
+        
+        Random random = new Random(4);
+        for (int i = 0; i < 1000; i++) {
+            DoubleDouble a = random(random);
+            double d = random.nextDouble() + 0.5;
+            expected = a.toBigDecimal().divide(new BigDecimal(d), new MathContext(50));
+            assertClose(expected, a.divide(d), expected);
+        }
+    }
+    
+    public void testNegate() {
+        DoubleDouble d = new DoubleDouble(1, 1e-20).negate();
+        assertEquals(-1.0, d.hi(), 0);
+        assertEquals(-1e-20, d.lo(), 0);
+        assertEquals(new DoubleDouble(-1, -1e-20), d);
+    }
+    
+    /**
+     * @return A double-double in (-2, 2) using all of its bits
+     */
+    private static DoubleDouble random(Random random) {
+        double hi = 4 * random.nextDouble() - 2;
+        return new DoubleDouble(hi, Math.ulp(hi) * (random.nextDouble() - 0.5));
+    }
+    
+    /**
+     * Check a result against the exact value, to within the relative error
+     * of the given scale
+     */
+    private static void assertClose(BigDecimal expected, DoubleDouble actual, BigDecimal scale) {
+        double error = actual.toBigDecimal().subtract(expected).abs().doubleValue();
+        assertTrue(expected + " but was " + actual, error <= scale.abs().doubleValue() * RELATIVE_ERROR);
+    }
+}
@@ -0,0 +1,138 @@
+package com.cjwatts.fractalexplorer.test;
+
+import com.cjwatts.fractalexplorer.main.algorithms.BurningShipAlgorithm;
+import com.cjwatts.fractalexplorer.main.algorithms.FractalAlgorithm;
+import com.cjwatts.fractalexplorer.main.algorithms.JuliaAlgorithm;
+import com.cjwatts.fractalexplorer.main.algorithms.MandelbrotAlgorithm;
+import com.cjwatts.fractalexplorer.main.algorithms.Periodicity;
+import com.cjwatts.fractalexplorer.main.algorithms.TricornAlgorithm;
+import com.cjwatts.fractalexplorer.main.util.Complex;
+
+import junit.framework.TestCase;
+
+public class EscapeTimeTest extends TestCase {
+    
+    private static final Complex SEED = new Complex(-0.4, 0.3);
+    
+    // Not a multiple of the row kernels' lane count, so the tail is covered too
+    private static final double[] RE = spread(-2, 1, 97);
+    private static final double[] IM = spread(-1.2, 1.2, 41);
+    
+    public void testPrimitive() {
+        ComplexMandelbrot algorithm = new ComplexMandelbrot(500);
+        JuliaAlgorithm julia = new JuliaAlgorithm(algorithm, SEED);
+        for (double im : IM) {
+            for (double re : RE) {
+                assertEquals(algorithm.loop(re, im, re, im), algorithm.escapeTime(re, im), 0);
+                assertEquals(algorithm.loop(re, im, SEED.real(), SEED.imaginary()), julia.escapeTime(re, im), 0);
+            }
+        }
+    }
+    
+    public void testRow() {
+        assertRows(new MandelbrotAlgorithm(500, 2), RE, IM);
+        assertRows(new TricornAlgorithm(500, 2), RE, IM);
+        assertRows(new BurningShipAlgorithm(500, 2), RE, IM);
+        assertRows(new JuliaAlgorithm(new MandelbrotAlgorithm(500, 2), SEED), RE, IM);
+        // Too short for a single lane group
+        assertRows(new MandelbrotAlgorithm(500, 2), spread(-0.5, 0, 3), IM);
+    }
+    
+    public void testInterior() {
+        ComplexMandelbrot checked = new ComplexMandelbrot(1000);
+        ComplexMandelbrot unchecked = new ComplexMandelbrot(1000);
+        unchecked.setInteriorCheck(false);
+        assertTrue(checked.isInteriorCheck());
+        
+        // Around the cardioid and the period-2 bulb, including the cusp and
+        // the points where the two meet and where the bulb meets the next one
+        double[] re = spread(-1.3, 0.4, 69);
+        double[] im = spread(-0.7, 0.7, 57);
+        double[] edges = { 0.25, -0.75, -1.25 };
+        for (double i : im) {
+            for (double r : re) {
+                assertInterior(checked, unchecked, r, i);
+            }
+        }
+        for (double r : edges) {
+            assertInterior(checked, unchecked, r, 0);
+        }
+        
+        assertRows(checked, re, im);
+        assertRows(checked, edges, new double[] { 0 });
+    }
+    
+    public void testPeriodicity() {
+        assertPeriodicity(new MandelbrotAlgorithm(2000, 2));
+        assertPeriodicity(new TricornAlgorithm(2000, 2));
+        assertPeriodicity(new BurningShipAlgorithm(2000, 2));
+        assertPeriodicity(new JuliaAlgorithm(new MandelbrotAlgorithm(2000, 2), SEED));
+    }
+    
+    private static void assertInterior(ComplexMandelbrot checked, ComplexMandelbrot unchecked, double re, double im) {
+        double expected = checked.loop(re, im, re, im);
+        assertEquals(expected, checked.escapeTime(re, im), 0);
+        assertEquals(expected, unchecked.escapeTime(re, im), 0);
+    }
+    
+    private static void assertRows(FractalAlgorithm algorithm, double[] re, double[] im) {
+        double[] out = new double[re.length];
+        for (double i : im) {
+            algorithm.escapeTimeRow(re, i, out);
+            for (int x = 0; x < re.length; x++) {
+                assertEquals(algorithm.escapeTime(re[x], i), out[x], 0);
+            }
+        }
+    }
+    
+    /**
+     * Periodic orbits must give exactly what the full loop does, on both paths
+     */
+    private static void assertPeriodicity(FractalAlgorithm algorithm) {
+        if (algorithm instanceof MandelbrotAlgorithm) {
+            ((MandelbrotAlgorithm) algorithm).setInteriorCheck(false);
+        }
+        Periodicity periodicity = new Periodicity(1e-12);
+        double[] out = new double[RE.length];
+        for (double im : IM) {
+            algorithm.escapeTimeRow(RE, im, out, periodicity);
+            for (int x = 0; x < RE.length; x++) {
+                assertEquals(algorithm.escapeTime(RE[x], im), out[x], 0);
+            }
+        }
+        assertTrue(periodicity.getPixels() > 0);
+        assertTrue(periodicity.getIterationsSaved() > 0);
+    }
+    
+    /**
+     * Points evenly spaced from min to max inclusive
+     */
+    private static double[] spread(double min, double max, int count) {
+        double[] points = new double[count];
+        for (int i = 0; i < count; i++) {
+            points[i] = min + i * (max - min) / (count - 1);
+        }
+        return points;
+    }
+    
+    /**
+     * Mandelbrot iterated on Complex objects, as it was before the primitive kernels
+     */
+    private static class ComplexMandelbrot extends MandelbrotAlgorithm {
+        
+        public ComplexMandelbrot(int iterations) {
+            super(iterations, 2);
+        }
+        
+        public double loop(double re, double im, double seedRe, double seedIm) {
+            Complex point = new Complex(re, im);
+            Complex seed = new Complex(seedRe, seedIm);
+            int i = 0;
+            while (point.modulusSquared() < escapeSquared && i < iterations) {
+                point = point.square().add(seed);
+                i++;
+            }
+            return normalise(point, i);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.cjwatts.fractalexplorer.test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Random;
+
+import com.cjwatts.fractalexplorer.main.util.BigComplex;
+import com.cjwatts.fractalexplorer.main.util.Fixed128Complex;
+
+import junit.framework.TestCase;
+
+public class Fixed128ComplexTest extends TestCase {
+    
+    // One unit in the last place
+    private static final BigDecimal ULP = BigDecimal.ONE.divide(
+            new BigDecimal(BigInteger.ONE.shiftLeft(Fixed128Complex.FRACTION_BITS)));
+            
+    public void testRoundTrip() {
+        BigDecimal re = new BigDecimal("-1.25").add(ULP);
+        BigDecimal im = new BigDecimal("0.75").subtract(ULP.multiply(new BigDecimal(3)));
+        assertEquals(new BigComplex(re, im), new Fixed128Complex(re, im).toBigComplex());
+        assertEquals("-1.25+0.75i", new Fixed128Complex(-1.25, 0.75).toComplex().toString());
+    }
+    
+    public void testAdd() {
+        // Carries from the low word into the high word, both ways
+        BigDecimal half = new BigDecimal("0.5");
+        BigDecimal low = ULP.multiply(new BigDecimal(BigInteger.ONE.shiftLeft(63)));
+        Fixed128Complex c = new Fixed128Complex(low, half.negate().subtract(low));
+        c.add(new Fixed128Complex(low, low.add(half)));
+        assertEquals(new BigComplex(low.multiply(new BigDecimal(2)), BigDecimal.ZERO), c.toBigComplex());
+        
+        Random random = new Random(1);
+        for (int i = 0; i < 1000; i++) {
+            BigDecimal a = random(random), b = random(random), x = random(random), y = random(random);
+            Fixed128Complex sum = new Fixed128Complex(a, b).add(new Fixed128Complex(x, y));
+            assertEquals(new BigComplex(a.add(x), b.add(y)), sum.toBigComplex());
+        }
+    }
+    
+    public void testSquare() {
+        Fixed128Complex c = new Fixed128Complex(1.5, -0.25).square();
+        assertEquals(new BigComplex(new BigDecimal("2.1875"), new BigDecimal("-0.75")), c.toBigComplex());
+        
+        Random random = new Random(2);
+        for (int i = 0; i < 10000; i++) {
+            BigDecimal re = random(random), im = random(random);
+            if (i % 4 == 0) {
+                // Only the low word set, so the low words' product matters most
+                re = re.multiply(ULP.multiply(new BigDecimal(BigInteger.ONE.shiftLeft(64))));
+                re = new Fixed128Complex(re, BigDecimal.ZERO).toBigComplex().real();
+            }
+            BigComplex square = new Fixed128Complex(re, im).square().toBigComplex();
+            // Each product is truncated to the last place, and the doubled one twice over
+            assertWithinUlps(re.multiply(re).subtract(im.multiply(im)), square.real(), 2);
+            assertWithinUlps(re.multiply(im).multiply(BigDecimal.valueOf(2)), square.imaginary(), 2);
+        }
+    }
+    
+    public void testComplement() {
+        Fixed128Complex c = new Fixed128Complex(3, 2).complement();
+        assertEquals(new BigComplex(new BigDecimal(3), new BigDecimal(-2)), c.toBigComplex());
+        c.complement();
+        assertEquals(new BigComplex(new BigDecimal(3), new BigDecimal(2)), c.toBigComplex());
+    }
+    
+    public void testAbsolute() {
+        BigDecimal re = new BigDecimal("-3").add(ULP);
+        Fixed128Complex c = new Fixed128Complex(re, new BigDecimal("-2")).absolute();
+        assertEquals(new BigComplex(re.negate(), new BigDecimal(2)), c.toBigComplex());
+    }
+    
+    public void testIsNear() {
+        BigDecimal one = BigDecimal.ONE;
+        Fixed128Complex c = new Fixed128Complex(one, one);
+        Fixed128Complex d = new Fixed128Complex(one.add(new BigDecimal("1e-30")), one);
+        assertTrue(c.isNear(d, 2e-30));
+        assertFalse(c.isNear(d, 5e-31));
+    }
+    
+    public void testModulusSquared() {
+        Fixed128Complex c = new Fixed128Complex(1.000011, -19.76);
+        assertEquals(391.4576220001211, c.modulusSquared(), 1e-12);
+    }
+    
+    /**
+     * @return A fixed-point number in (-4, 4) using all of its bits
+     */
+    private static BigDecimal random(Random random) {
+        BigInteger bits = new BigInteger(Fixed128Complex.FRACTION_BITS + 3, random)
+                .subtract(BigInteger.ONE.shiftLeft(Fixed128Complex.FRACTION_BITS + 2));
+        return new BigDecimal(bits).multiply(ULP);
+    }
+    
+    private static void assertWithinUlps(BigDecimal expected, BigDecimal actual, int ulps) {
+        BigDecimal error = expected.subtract(actual).abs();
+        assertTrue(expected + " but was " + actual, error.compareTo(ULP.multiply(new BigDecimal(ulps))) <= 0);
+    }
+}
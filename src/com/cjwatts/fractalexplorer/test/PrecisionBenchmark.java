@@ -0,0 +1,116 @@
+package com.cjwatts.fractalexplorer.test;
+
+import java.awt.image.BufferedImage;
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import com.cjwatts.fractalexplorer.main.algorithms.MandelbrotAlgorithm;
+import com.cjwatts.fractalexplorer.main.panels.FractalPanel;
+import com.cjwatts.fractalexplorer.main.panels.Precision;
+
+/**
+ * A static class to benchmark each numeric method at increasing zoom depths
+ * Reports render time and accuracy against the arbitrary precision render in CSV format
+ */
+public class PrecisionBenchmark {
+    
+    static int n;
+    static int width = 120;
+    static int height = 120;
+    static int iterations = 1000;
+    static String filename = "precision.csv";
+    
+    // A point on the boundary at this iteration count, so every depth has detail
+    static BigDecimal centreRe = new BigDecimal("-0.7442299339000198083244692631583448796064742928571173325");
+    static BigDecimal centreIm = new BigDecimal("0.1");
+    
+    // Half the width of the view at each depth
+    static String[] depths = { "1e-3", "1e-10", "1e-14", "1e-20", "1e-26", "1e-30", "1e-36" };
+    
+    // Arbitrary first, as the reference for the others
+    static Precision[] methods = {
+        Precision.ARBITRARY,
+        Precision.FLOAT,
+        Precision.DOUBLE,
+        Precision.DOUBLE_DOUBLE,
+        Precision.FIXED_128,
+        Precision.PERTURBATION
+    };
+    
+    public static void main(String[] args) {
+        // args[0] = Number of times to complete - default 3
+        try {
+            n = Integer.parseInt(args[0]);
+        } catch (Exception e) {
+            n = 3;
+        }
+        
+        // Set up fractal
+        MandelbrotAlgorithm algorithm = new MandelbrotAlgorithm(iterations, 2);
+        FractalPanel fractal = new FractalPanel(algorithm);
+        fractal.setSize(width, height);
+        // Every repeat would be a tile cache hit, so time cold renders
+        fractal.setTileCache(null);
+        
+        // Headers
+        String output = "Depth,Method,Render Time,Accuracy\n";
+        
+        for (String depth : depths) {
+            BigDecimal half = new BigDecimal(depth);
+            fractal.setComplexBounds(centreRe.subtract(half), centreRe.add(half), centreIm.subtract(half), centreIm.add(half));
+            
+            BufferedImage reference = null;
+            for (Precision method : methods) {
+                fractal.setPrecision(method);
+                
+                double[] times = new double[n];
+                BufferedImage image = null;
+                for (int i = 0; i < n; i++) {
+                    FractalPanel.Renderer renderer = fractal.new Renderer(width, height);
+                    double start = System.nanoTime();
+                    renderer.run();
+                    times[i] = (System.nanoTime() - start) / 1000000000.0;
+                    image = renderer.getRender();
+                }
+                if (reference == null) {
+                    reference = image;
+                }
+                
+                // Take median of tests
+                Arrays.sort(times);
+                output += depth + "," + method + "," + times[n / 2] + "," + accuracy(image, reference) + "\n";
+                System.out.println(depth + " " + method + ": " + times[n / 2] + "s");
+            }
+        }
+        
+        try {
+            // Write to file
+            BufferedWriter writer = new BufferedWriter(new FileWriter(filename));
+            writer.write(output);
+            writer.close();
+            System.out.println("Results written to " + filename);
+        } catch (IOException ex) {
+            System.err.println("Could not write to file, displaying instead:");
+            System.out.println(output);
+        }
+        System.exit(0);
+    }
+    
+    /**
+     * @return Fraction of pixels which are the same colour in both images
+     */
+    public static double accuracy(BufferedImage image, BufferedImage reference) {
+        int same = 0;
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                if (image.getRGB(x, y) == reference.getRGB(x, y)) {
+                    same++;
+                }
+            }
+        }
+        return (double) same / (width * height);
+    }
+}
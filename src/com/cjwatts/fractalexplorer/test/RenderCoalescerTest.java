@@ -0,0 +1,123 @@
+package com.cjwatts.fractalexplorer.test;
+
+import javax.swing.SwingUtilities;
+
+import com.cjwatts.fractalexplorer.main.algorithms.MandelbrotAlgorithm;
+import com.cjwatts.fractalexplorer.main.panels.FractalPanel;
+import com.cjwatts.fractalexplorer.main.panels.RenderCoalescer;
+
+import junit.framework.TestCase;
+
+public class RenderCoalescerTest extends TestCase {
+    
+    private FractalPanel panel;
+    private Update update;
+    private RenderCoalescer coalescer;
+    
+    @Override
+    protected void setUp() {
+        System.setProperty("java.awt.headless", "true");
+        panel = new FractalPanel(new MandelbrotAlgorithm(200, 2));
+        panel.setSize(400, 320);
+        update = new Update();
+        // Long enough that only flush applies the update
+        coalescer = new RenderCoalescer(update, 60000, panel);
+    }
+    
+    public void testCoalesce() throws Exception {
+        onEventThread(new Runnable() {
+            
+            @Override
+            public void run() {
+                update.rmax = 0.5;
+                coalescer.request();
+                coalescer.request();
+                coalescer.request();
+                coalescer.flush();
+            }
+        });
+        assertEquals(1, update.runs);
+        assertEquals(3, coalescer.getRequests());
+        assertEquals(2, coalescer.getCoalesced());
+        assertEquals(0, coalescer.getDropped());
+    }
+    
+    public void testDropped() throws Exception {
+        onEventThread(new Runnable() {
+            
+            @Override
+            public void run() {
+                update.rmax = 0.5;
+                coalescer.request();
+                coalescer.flush();
+                // The same view again changes nothing
+                coalescer.request();
+                coalescer.request();
+                coalescer.flush();
+                update.rmax = 0.25;
+                coalescer.request();
+                coalescer.flush();
+            }
+        });
+        assertEquals(3, update.runs);
+        assertEquals(4, coalescer.getRequests());
+        assertEquals(1, coalescer.getCoalesced());
+        assertEquals(1, coalescer.getDropped());
+    }
+    
+    public void testFlushWithoutRequest() throws Exception {
+        onEventThread(new Runnable() {
+            
+            @Override
+            public void run() {
+                coalescer.flush();
+            }
+        });
+        assertEquals(0, update.runs);
+        assertEquals(0, coalescer.getDropped());
+    }
+    
+    public void testZeroWindow() throws Exception {
+        coalescer.setWindow(0);
+        assertEquals(0, coalescer.getWindow());
+        onEventThread(new Runnable() {
+            
+            @Override
+            public void run() {
+                update.rmax = 0.5;
+                coalescer.request();
+                coalescer.request();
+                // Not until the current event is done
+                assertEquals(0, update.runs);
+            }
+        });
+        // Wait for the events queued behind it
+        onEventThread(new Runnable() {
+            
+            @Override
+            public void run() {
+            }
+        });
+        assertEquals(1, update.runs);
+        assertEquals(1, coalescer.getCoalesced());
+    }
+    
+    private static void onEventThread(Runnable runnable) throws Exception {
+        SwingUtilities.invokeAndWait(runnable);
+    }
+    
+    /**
+     * Moves the panel's view to the real maximum set, as the controls would
+     */
+    private class Update implements Runnable {
+        
+        private double rmax = 1;
+        private int runs;
+        
+        @Override
+        public void run() {
+            runs++;
+            panel.setComplexBounds(-2, rmax, -1.2, 1.2);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.cjwatts.fractalexplorer.test;
+
+import java.math.BigDecimal;
+
+import com.cjwatts.fractalexplorer.main.FractalColourScheme;
+import com.cjwatts.fractalexplorer.main.algorithms.MandelbrotAlgorithm;
+import com.cjwatts.fractalexplorer.main.panels.FractalPanel;
+import com.cjwatts.fractalexplorer.main.panels.Precision;
+import com.cjwatts.fractalexplorer.main.panels.RenderRequest;
+import com.cjwatts.fractalexplorer.main.panels.RenderStrategy;
+
+import junit.framework.TestCase;
+
+public class RenderRequestTest extends TestCase {
+    
+    private MandelbrotAlgorithm algorithm;
+    private FractalPanel panel;
+    
+    @Override
+    protected void setUp() {
+        System.setProperty("java.awt.headless", "true");
+        algorithm = new MandelbrotAlgorithm(200, 2);
+        panel = new FractalPanel(algorithm);
+        panel.setSize(400, 320);
+        setBounds("-2.0", "1.0", "-1.2", "1.2");
+    }
+    
+    public void testScale() {
+        RenderRequest request = panel.getRequest();
+        setBounds("-2.00", "1", "-1.20000", "1.20");
+        assertEquals(request, panel.getRequest());
+        assertEquals(request.hashCode(), panel.getRequest().hashCode());
+        assertEquals(request.getDigest(), panel.getRequest().getDigest());
+        assertEquals(request.toString(), panel.getRequest().toString());
+        
+        setBounds("0.0", "1.00", "-0.0", "0.000");
+        request = panel.getRequest();
+        setBounds("0", "1", "0", "0");
+        assertEquals(request, panel.getRequest());
+    }
+    
+    public void testBounds() {
+        RenderRequest request = panel.getRequest();
+        setBounds("-2.0", "1.0000000000000000000000000000001", "-1.2", "1.2");
+        assertFalse(request.equals(panel.getRequest()));
+        assertFalse(request.getEscapeDigest().equals(panel.getRequest().getEscapeDigest()));
+        // How each point is calculated is the same
+        assertEquals(request.getKernelDigest(), panel.getRequest().getKernelDigest());
+    }
+    
+    public void testColouring() {
+        RenderRequest request = panel.getRequest();
+        panel.setColourScheme(FractalColourScheme.RED_SKY);
+        panel.setPaletteOffset(0.5);
+        assertFalse(request.equals(panel.getRequest()));
+        // Only the colouring has changed
+        assertEquals(request.getEscapeDigest(), panel.getRequest().getEscapeDigest());
+    }
+    
+    public void testAlgorithm() {
+        RenderRequest request = panel.getRequest();
+        algorithm.setIterations(400);
+        // Changes in place are only seen once the panel is told
+        assertEquals(request, panel.getRequest());
+        panel.algorithmChanged();
+        RenderRequest raised = panel.getRequest();
+        assertFalse(request.getKernelDigest().equals(raised.getKernelDigest()));
+        // The orbits are the same, only the limit differs
+        assertEquals(request.getOrbitDigest(), raised.getOrbitDigest());
+    }
+    
+    public void testSettings() {
+        RenderRequest request = panel.getRequest();
+        panel.setStrategy(RenderStrategy.SOLID_GUESSING);
+        RenderRequest guessing = panel.getRequest();
+        assertFalse(request.getEscapeDigest().equals(guessing.getEscapeDigest()));
+        panel.setGuessTolerance(panel.getGuessTolerance() * 2);
+        assertFalse(guessing.equals(panel.getRequest()));
+        
+        // The tolerance only matters to solid guessing
+        panel.setStrategy(RenderStrategy.FULL);
+        request = panel.getRequest();
+        panel.setGuessTolerance(panel.getGuessTolerance() / 2);
+        assertEquals(request, panel.getRequest());
+        
+        // Requests describe the method actually used
+        panel.setPrecision(Precision.DOUBLE);
+        assertEquals(request, panel.getRequest());
+        panel.setFloatAuto(true);
+        panel.setPrecision(Precision.AUTO);
+        assertEquals(Precision.FLOAT, panel.getRequest().getMethod());
+        assertFalse(request.equals(panel.getRequest()));
+    }
+    
+    public void testSize() {
+        RenderRequest request = panel.getRequest();
+        assertEquals(400, request.getWidth());
+        assertEquals(320, request.getHeight());
+        panel.setSize(800, 640);
+        assertFalse(request.equals(panel.getRequest()));
+        assertEquals(800, panel.getRequest().getWidth());
+    }
+    
+    public void testCoordinates() {
+        RenderRequest request = panel.getRequest();
+        assertEquals(0, new BigDecimal("0.0075").compareTo(request.getSpacingRe()));
+        assertEquals(0, new BigDecimal("-0.5").compareTo(request.getCentre().real()));
+        assertEquals(-0.5, request.getReal(200), 1e-15);
+        assertEquals(0, new BigDecimal("-0.5").compareTo(request.getRealExact(200)));
+        assertEquals(-2.0, request.getRealDD(0).doubleValue(), 1e-15);
+        
+        // Moving the panel's view leaves the request's coordinates alone
+        setBounds("0", "1", "0", "1");
+        assertEquals(-0.5, request.getReal(200), 1e-15);
+        assertEquals(0, new BigDecimal("-0.5").compareTo(request.getCentre().real()));
+    }
+    
+    private void setBounds(String rmin, String rmax, String imin, String imax) {
+        panel.setComplexBounds(new BigDecimal(rmin), new BigDecimal(rmax), new BigDecimal(imin), new BigDecimal(imax));
+    }
+}
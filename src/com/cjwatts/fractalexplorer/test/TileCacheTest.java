@@ -0,0 +1,142 @@
+package com.cjwatts.fractalexplorer.test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+
+import com.cjwatts.fractalexplorer.main.panels.TileCache;
+import com.cjwatts.fractalexplorer.main.panels.TileCache.Level;
+import com.cjwatts.fractalexplorer.main.panels.TileCache.Placement;
+
+import junit.framework.TestCase;
+
+public class TileCacheTest extends TestCase {
+    
+    private static final int SIZE = TileCache.TILE_SIZE;
+    private static final BigDecimal SPACING = new BigDecimal("0.01");
+    
+    public void testLevel() {
+        // Samples a whole number of spacings apart lie on the same grid
+        Level level = level("k", "0.003", "-0.004");
+        assertEquals(level, level("k", "1.253", "-7.004"));
+        assertEquals(level.hashCode(), level("k", "1.253", "-7.004").hashCode());
+        // Whatever the scale of the coordinates and spacing
+        assertEquals(level, new Level("k", new BigDecimal("0.00300"), new BigDecimal("-0.0040"),
+                new BigDecimal("0.010"), new BigDecimal("0.0100")));
+                
+        // A different phase, spacing or kernel is a different grid
+        assertFalse(level.equals(level("k", "0.004", "-0.004")));
+        assertFalse(level.equals(level("k", "0.003", "-0.005")));
+        assertFalse(level.equals(level("other", "0.003", "-0.004")));
+        assertFalse(level.equals(new Level("k", new BigDecimal("0.003"), new BigDecimal("-0.004"),
+                new BigDecimal("0.02"), SPACING)));
+    }
+    
+    public void testPlacement() {
+        Level level = level("k", "0", "0");
+        Placement origin = new Placement(level, BigDecimal.ZERO, BigDecimal.ZERO);
+        assertPlacement(origin, 0, 0, 0, 0);
+        
+        // 70 samples across is 6 into the second tile
+        Placement placement = new Placement(level, new BigDecimal("0.70"), new BigDecimal("1.30"));
+        assertPlacement(placement, 1, 6, 2, 2);
+        
+        // Negative coordinates count back from the origin
+        placement = new Placement(level, new BigDecimal("-0.01"), new BigDecimal("-0.64"));
+        assertPlacement(placement, -1, SIZE - 1, -1, 0);
+        placement = new Placement(level, new BigDecimal("-0.65"), new BigDecimal("-1.29"));
+        assertPlacement(placement, -2, SIZE - 1, -3, SIZE - 1);
+        
+        // Far from the origin, beyond any int
+        BigDecimal far = new BigDecimal("100000000000000000000.03");
+        placement = new Placement(level, far, far.negate());
+        BigInteger samples = far.divide(SPACING).toBigIntegerExact();
+        BigInteger[] across = samples.divideAndRemainder(BigInteger.valueOf(SIZE));
+        assertEquals(across[0], placement.getColumn());
+        assertEquals(across[1].intValue(), placement.getX());
+        assertEquals(across[0].negate().subtract(BigInteger.ONE), placement.getRow());
+        assertEquals(SIZE - across[1].intValue(), placement.getY());
+    }
+    
+    public void testStore() {
+        TileCache cache = new TileCache(1L << 20);
+        Level level = level("k", "0.005", "0.005");
+        
+        // A 3 x 2 render straddling four tiles
+        double[] escapes = { 1, 2, 3, 4, 5, 6 };
+        Placement placement = new Placement(level, new BigDecimal("-0.015"), new BigDecimal("-0.005"));
+        assertPlacement(placement, -1, SIZE - 2, -1, SIZE - 1);
+        cache.store(placement, escapes, 3, 2, "tag");
+        assertEquals(4, cache.getTileCount());
+        
+        double[] tile = cache.get(level, BigInteger.valueOf(-1), BigInteger.valueOf(-1));
+        assertEquals(1.0, tile[(SIZE - 1) * SIZE + SIZE - 2], 0);
+        assertEquals(2.0, tile[(SIZE - 1) * SIZE + SIZE - 1], 0);
+        assertTrue(Double.isNaN(tile[0]));
+        tile = cache.get(level, BigInteger.ZERO, BigInteger.valueOf(-1));
+        assertEquals(3.0, tile[(SIZE - 1) * SIZE], 0);
+        tile = cache.get(level, BigInteger.valueOf(-1), BigInteger.ZERO);
+        assertEquals(4.0, tile[SIZE - 2], 0);
+        assertEquals(5.0, tile[SIZE - 1], 0);
+        tile = cache.get(level, BigInteger.ZERO, BigInteger.ZERO);
+        assertEquals(6.0, tile[0], 0);
+        
+        assertNull(cache.get(level, BigInteger.ONE, BigInteger.ZERO));
+        assertNull(cache.get(level("other", "0.005", "0.005"), BigInteger.ZERO, BigInteger.ZERO));
+        assertEquals(4, cache.getHits());
+        assertEquals(2, cache.getMisses());
+    }
+    
+    public void testMerge() {
+        TileCache cache = new TileCache(1L << 20);
+        Level level = level("k", "0", "0");
+        Placement placement = new Placement(level, BigDecimal.ZERO, BigDecimal.ZERO);
+        double[] first = { 1, Double.NaN };
+        cache.store(placement, first, 2, 1, "tag");
+        double[] before = cache.get(level, BigInteger.ZERO, BigInteger.ZERO);
+        
+        // Later samples are added, and tiles already handed out are left alone
+        cache.store(new Placement(level, SPACING, BigDecimal.ZERO), new double[] { 2 }, 1, 1, "tag");
+        double[] after = cache.get(level, BigInteger.ZERO, BigInteger.ZERO);
+        assertEquals(1.0, after[0], 0);
+        assertEquals(2.0, after[1], 0);
+        assertTrue(Double.isNaN(before[1]));
+    }
+    
+    public void testEviction() {
+        long tileBytes = 8L * SIZE * SIZE;
+        TileCache cache = new TileCache(3 * tileBytes);
+        Level level = level("k", "0", "0");
+        double[] escapes = new double[SIZE * SIZE];
+        Arrays.fill(escapes, 1);
+        for (int i = 0; i < 4; i++) {
+            BigDecimal re = SPACING.multiply(new BigDecimal(i * SIZE));
+            cache.store(new Placement(level, re, BigDecimal.ZERO), escapes, SIZE, SIZE, "tag");
+            if (i == 2) {
+                // Used most recently, so kept over the second
+                cache.get(level, BigInteger.ZERO, BigInteger.ZERO);
+            }
+        }
+        assertEquals(3, cache.getTileCount());
+        assertEquals(3 * tileBytes, cache.getSize());
+        assertNotNull(cache.get(level, BigInteger.ZERO, BigInteger.ZERO));
+        assertNull(cache.get(level, BigInteger.ONE, BigInteger.ZERO));
+        assertNotNull(cache.get(level, BigInteger.valueOf(3), BigInteger.ZERO));
+        
+        cache.setBudget(tileBytes);
+        assertEquals(1, cache.getTileCount());
+        cache.clear();
+        assertEquals(0, cache.getTileCount());
+    }
+    
+    private static Level level(String kernel, String re, String im) {
+        return new Level(kernel, new BigDecimal(re), new BigDecimal(im), SPACING, SPACING);
+    }
+    
+    private static void assertPlacement(Placement placement, int column, int x, int row, int y) {
+        assertEquals(BigInteger.valueOf(column), placement.getColumn());
+        assertEquals(x, placement.getX());
+        assertEquals(BigInteger.valueOf(row), placement.getRow());
+        assertEquals(y, placement.getY());
+    }
+}
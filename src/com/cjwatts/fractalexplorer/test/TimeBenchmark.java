@@ -38,6 +38,8 @@ public class TimeBenchmark {
         FractalPanel fractal = new FractalPanel(algorithm);
         fractal.setColourScheme(scheme);
         fractal.setSize(width, height);
+        // Every repeat would be a tile cache hit, so time cold renders
+        fractal.setTileCache(null);
         
         Complex test1 = new Complex(-1.995, 1.55925);
         Complex test2 = new Complex(-0.931647, -0.66725521);